@@ -0,0 +1,65 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * FishKernel on the Vector API: the same operations in the same order, one vector
+ * of fish per step, with the scalar loop for the tail. Needs
+ * --add-modules jdk.incubator.vector at compile and run time; FishKernel falls back
+ * to the scalar kernel when it cannot be loaded.
+ */
+public class FishVectorKernel extends FishKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    public void integrate(double[] x, double[] y, double[] vx, double[] vy, double[] phase, int from, int to) {
+        int i = from;
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += SPECIES.length()) {
+            DoubleVector p = DoubleVector.fromArray(SPECIES, phase, i);
+
+            DoubleVector.fromArray(SPECIES, x, i)
+                    .add(DoubleVector.fromArray(SPECIES, vx, i))
+                    .intoArray(x, i);
+            DoubleVector.fromArray(SPECIES, y, i)
+                    .add(DoubleVector.fromArray(SPECIES, vy, i))
+                    .add(sin(p).mul(WOBBLE))
+                    .intoArray(y, i);
+
+            DoubleVector next = p.add(PHASE_STEP);
+            next.blend(next.sub(TWO_PI), next.compare(VectorOperators.GE, PI)).intoArray(phase, i);
+        }
+        super.integrate(x, y, vx, vy, phase, i, to);
+    }
+
+    @Override
+    public void touching(double[] x, double[] y, int from, int to,
+                         double minX, double minY, double maxX, double maxY, boolean[] out) {
+        int i = from;
+        for (int end = from + SPECIES.loopBound(to - from); i < end; i += SPECIES.length()) {
+            DoubleVector xs = DoubleVector.fromArray(SPECIES, x, i);
+            DoubleVector ys = DoubleVector.fromArray(SPECIES, y, i);
+            VectorMask<Double> hit = xs.compare(VectorOperators.GT, minX)
+                    .and(xs.compare(VectorOperators.LT, maxX))
+                    .and(ys.compare(VectorOperators.GT, minY))
+                    .and(ys.compare(VectorOperators.LT, maxY));
+            hit.intoArray(out, i);
+        }
+        super.touching(x, y, i, to, minX, minY, maxX, maxY, out);
+    }
+
+    // FishKernel.sin(), lane-wise
+    private static DoubleVector sin(DoubleVector a) {
+        a = a.blend(a.neg().add(PI), a.compare(VectorOperators.GT, HALF_PI));
+        a = a.blend(a.neg().sub(PI), a.compare(VectorOperators.LT, -HALF_PI));
+        DoubleVector a2 = a.mul(a);
+        DoubleVector p = a2.mul(S11).add(S9).mul(a2).add(S7).mul(a2).add(S5).mul(a2).add(S3);
+        return a.add(a.mul(a2).mul(p));
+    }
+}
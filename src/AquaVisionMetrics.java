@@ -0,0 +1,246 @@
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * JMX view of a running session.
+ *
+ * Registered on the platform MBean server, so it is visible in jconsole locally and,
+ * when the JVM is started with the standard com.sun.management.jmxremote options,
+ * from another machine on the clinic network. All getters read counters the game
+ * already keeps; nothing is computed unless a client asks.
+ *
+ * Writable attributes: PowerSaving switches the game loop's power saving mode,
+ * PerfOverlay shows the in-game overlay, Recording starts and stops a Flight
+ * Recorder recording with the AquaVision events enabled, written to
+ * ~/.aquavision/recordings.
+ */
+public class AquaVisionMetrics implements AquaVisionMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.aquavision:type=Metrics";
+
+    private static final String[] GAME_EVENTS = {
+            "aquavision.Phase", "aquavision.Collision", "aquavision.Spawn", "aquavision.DatabaseCall"
+    };
+
+    private Recording recording;
+    private File lastRecordingFile;
+
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new AquaVisionMetrics(), new ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            System.err.println("Could not register JMX metrics: " + e.getMessage());
+        }
+    }
+
+    // ================= GAME LOOP =================
+
+    @Override
+    public double getFramesPerSecond() {
+        Game game = GameWindow.currentGame();
+        return game == null ? 0 : game.getLoop().getFramesPerSecond();
+    }
+
+    @Override
+    public double getTickTimeP50Millis() {
+        return tickPercentile(50);
+    }
+
+    @Override
+    public double getTickTimeP95Millis() {
+        return tickPercentile(95);
+    }
+
+    @Override
+    public double getTickTimeP99Millis() {
+        return tickPercentile(99);
+    }
+
+    @Override
+    public double getInputToSimulationP95Millis() {
+        return Game.INPUT_TO_SIMULATION.percentileMillis(95);
+    }
+
+    @Override
+    public double getInputToDisplayP95Millis() {
+        return Game.INPUT_TO_DISPLAY.percentileMillis(95);
+    }
+
+    private double tickPercentile(double p) {
+        Game game = GameWindow.currentGame();
+        return game == null ? 0 : game.getLoop().getTickTimes().percentileMillis(p);
+    }
+
+    // ================= MISSION =================
+
+    @Override
+    public boolean isMissionRunning() {
+        Game game = GameWindow.currentGame();
+        return game != null && game.isMissionRunning();
+    }
+
+    @Override
+    public int getMission() {
+        Game game = GameWindow.currentGame();
+        return game == null ? 0 : game.getMissionNumber();
+    }
+
+    @Override
+    public int getPhase() {
+        Game game = GameWindow.currentGame();
+        return game == null ? 0 : game.getPhaseNumber();
+    }
+
+    @Override
+    public int getFishCount() {
+        Game game = GameWindow.currentGame();
+        return game == null ? 0 : game.getFishCount();
+    }
+
+    @Override
+    public String getQualityTier() {
+        Game game = GameWindow.currentGame();
+        return game == null ? "" : game.getQualityTier();
+    }
+
+    // ================= DATABASE =================
+
+    @Override
+    public long getDatabaseCalls() {
+        return DatabaseManager.getCallCount();
+    }
+
+    @Override
+    public long getDatabaseFailedCalls() {
+        return DatabaseManager.getFailedCallCount();
+    }
+
+    @Override
+    public int getDatabaseQueueDepth() {
+        return DatabaseManager.getCallsInProgress();
+    }
+
+    @Override
+    public double getDatabaseLatencyP50Millis() {
+        return DatabaseManager.getCallLatency().percentileMillis(50);
+    }
+
+    @Override
+    public double getDatabaseLatencyP95Millis() {
+        return DatabaseManager.getCallLatency().percentileMillis(95);
+    }
+
+    @Override
+    public double getDatabaseLatencyMaxMillis() {
+        return DatabaseManager.getCallLatency().maxMillis();
+    }
+
+    // ================= ASSETS & AUDIO =================
+
+    @Override
+    public double getAssetCacheHitRate() {
+        return AssetCache.getHitRate();
+    }
+
+    @Override
+    public long getAssetCacheHits() {
+        return AssetCache.getHits();
+    }
+
+    @Override
+    public long getAssetCacheMisses() {
+        return AssetCache.getMisses();
+    }
+
+    @Override
+    public long getAssetCacheEvictions() {
+        return AssetCache.getEvictions();
+    }
+
+    @Override
+    public long getMusicUnderruns() {
+        return SoundManager.getUnderruns();
+    }
+
+    @Override
+    public long getSoundEffectUnderruns() {
+        return SoundEffects.getUnderruns();
+    }
+
+    // ================= TOGGLES =================
+
+    // Of one core; compare with PowerSaving on and off
+    @Override
+    public double getProcessCpuPercent() {
+        return CpuMeter.process();
+    }
+
+    @Override
+    public boolean isPowerSaving() {
+        return GameLoop.isPowerSaving();
+    }
+
+    @Override
+    public void setPowerSaving(boolean on) {
+        GameLoop.setPowerSaving(on);
+    }
+
+    @Override
+    public boolean isPerfOverlay() {
+        return PerfOverlay.isEnabled();
+    }
+
+    @Override
+    public void setPerfOverlay(boolean enabled) {
+        PerfOverlay.setEnabled(enabled);
+    }
+
+    @Override
+    public synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    @Override
+    public synchronized void setRecording(boolean on) {
+        if (on == (recording != null)) return;
+
+        if (on) {
+            try {
+                File dir = new File(System.getProperty("user.home"), ".aquavision/recordings");
+                dir.mkdirs();
+                File file = new File(dir, "aquavision-"
+                        + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".jfr");
+
+                Recording r = new Recording(Configuration.getConfiguration("profile"));
+                for (String event : GAME_EVENTS) r.enable(event);
+                r.setToDisk(true);
+                r.setDestination(file.toPath());
+                r.start();
+
+                recording = r;
+                lastRecordingFile = file;
+                System.out.println("Flight recording started: " + file);
+            } catch (Exception e) {
+                System.err.println("Could not start flight recording: " + e.getMessage());
+            }
+        } else {
+            // Stopping writes the recording to its destination
+            recording.stop();
+            recording.close();
+            recording = null;
+            System.out.println("Flight recording saved: " + lastRecordingFile);
+        }
+    }
+
+    @Override
+    public synchronized String getLastRecordingFile() {
+        return lastRecordingFile == null ? "" : lastRecordingFile.getAbsolutePath();
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Live game and database health, registered as com.aquavision:type=Metrics.
+ * Browse it with jconsole or any JMX client; see AquaVisionMetrics.
+ */
+public interface AquaVisionMetricsMXBean {
+
+    // Game loop
+    double getFramesPerSecond();
+    double getTickTimeP50Millis();
+    double getTickTimeP95Millis();
+    double getTickTimeP99Millis();
+    double getInputToSimulationP95Millis();
+    double getInputToDisplayP95Millis();
+
+    // Mission
+    boolean isMissionRunning();
+    int getMission();
+    int getPhase();
+    int getFishCount();
+    String getQualityTier();
+
+    // Database
+    long getDatabaseCalls();
+    long getDatabaseFailedCalls();
+    int getDatabaseQueueDepth();
+    double getDatabaseLatencyP50Millis();
+    double getDatabaseLatencyP95Millis();
+    double getDatabaseLatencyMaxMillis();
+
+    // Assets and audio
+    double getAssetCacheHitRate();
+    long getAssetCacheHits();
+    long getAssetCacheMisses();
+    long getAssetCacheEvictions();
+    long getMusicUnderruns();
+    long getSoundEffectUnderruns();
+
+    // Process
+    double getProcessCpuPercent();
+
+    // Operational toggles
+    boolean isPowerSaving();
+    void setPowerSaving(boolean on);
+    boolean isPerfOverlay();
+    void setPerfOverlay(boolean enabled);
+    boolean isRecording();
+    void setRecording(boolean recording);
+    String getLastRecordingFile();
+}
@@ -0,0 +1,185 @@
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared image cache for every panel.
+ *
+ * Resources are decoded once (in parallel by preload()), converted to images that
+ * match the screen's pixel layout, and pre-scaled to the sizes the panels draw them
+ * at, so painting is a plain blit. Entries are held through SoftReferences: under
+ * memory pressure the GC may drop them and they are rebuilt on the next request.
+ */
+public class AssetCache {
+
+    // Every resource image and the sizes the UI draws it at
+    private static final Map<String, Dimension[]> TARGET_SIZES = Map.of(
+            "/background.png",        new Dimension[]{new Dimension(600, 600)},
+            "/MissionBackground.png", new Dimension[]{new Dimension(600, 600)},
+            "/level_active.png",      new Dimension[]{new Dimension(60, 60), new Dimension(45, 40)},
+            "/level_locked.png",      new Dimension[]{new Dimension(60, 60)},
+            "/return.png",            new Dimension[]{new Dimension(100, 50)},
+            "/close.png",             new Dimension[]{new Dimension(60, 40)},
+            "/appLogo.png",           new Dimension[0]
+    );
+
+    private static final ConcurrentHashMap<String, SoftReference<BufferedImage>> images = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Object> loadLocks = new ConcurrentHashMap<>();
+    private static final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    // Decodes and pre-scales every known resource, one task per file
+    public static CompletableFuture<Void> preload(Executor executor) {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (Map.Entry<String, Dimension[]> entry : TARGET_SIZES.entrySet()) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                if (get(entry.getKey()) == null) return;
+                for (Dimension size : entry.getValue()) {
+                    get(entry.getKey(), size.width, size.height);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // Full-size image, or null if the resource does not exist
+    public static BufferedImage get(String resourcePath) {
+        return lookup(resourcePath, () -> decode(resourcePath));
+    }
+
+    // Image scaled to exactly width x height, or null if the resource does not exist
+    public static BufferedImage get(String resourcePath, int width, int height) {
+        if (width <= 0 || height <= 0) return null;
+        return lookup(scaledKey(resourcePath, width, height), () -> {
+            BufferedImage source = get(resourcePath);
+            return source != null ? scale(source, width, height) : null;
+        });
+    }
+
+    // Drops a scaled copy that is no longer drawn, such as the sizes a panel passes
+    // through while its window is resized; the preloaded sizes stay
+    public static void release(String resourcePath, int width, int height) {
+        for (Dimension size : TARGET_SIZES.getOrDefault(resourcePath, new Dimension[0])) {
+            if (size.width == width && size.height == height) return;
+        }
+        String key = scaledKey(resourcePath, width, height);
+        images.remove(key);
+        loadLocks.remove(key);
+    }
+
+    private static String scaledKey(String resourcePath, int width, int height) {
+        return resourcePath + "@" + width + "x" + height;
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static long getEvictions() {
+        return evictions.get();
+    }
+
+    public static double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private static BufferedImage lookup(String key, java.util.function.Supplier<BufferedImage> loader) {
+        if (missing.contains(key)) return null;
+
+        SoftReference<BufferedImage> ref = images.get(key);
+        BufferedImage image = ref != null ? ref.get() : null;
+        if (image != null) {
+            hits.incrementAndGet();
+            return image;
+        }
+
+        misses.incrementAndGet();
+        if (ref != null) evictions.incrementAndGet();
+
+        // Concurrent requests for the same key wait for a single decode
+        synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+            ref = images.get(key);
+            image = ref != null ? ref.get() : null;
+            if (image == null) {
+                image = loader.get();
+                if (image != null) images.put(key, new SoftReference<>(image));
+                else missing.add(key);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage decode(String resourcePath) {
+        URL url = AssetCache.class.getResource(resourcePath);
+        if (url == null) {
+            System.err.println("Resource not found: " + resourcePath);
+            return null;
+        }
+        try {
+            BufferedImage raw = ImageIO.read(url);
+            if (raw == null) return null;
+
+            BufferedImage image = createCompatible(raw.getWidth(), raw.getHeight());
+            Graphics2D g = image.createGraphics();
+            g.drawImage(raw, 0, 0, null);
+            g.dispose();
+            return image;
+        } catch (IOException e) {
+            System.err.println("Error loading resource: " + resourcePath + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Halves the image with bilinear filtering until close to the target, then does the
+    // final step; this gives SCALE_SMOOTH quality at a fraction of the cost.
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+
+        do {
+            w = Math.max(width, w > width ? w / 2 : width);
+            h = Math.max(height, h > height ? h / 2 : height);
+
+            BufferedImage step = createCompatible(w, h);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != width || h != height);
+
+        return current;
+    }
+
+    private static BufferedImage createCompatible(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
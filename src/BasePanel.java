@@ -3,6 +3,6 @@ import javax.swing.*;
 public class BasePanel extends JPanel {
     public BasePanel() {
         setLayout(null);
-        setSize(600, 600);
+        setSize(RenderConfig.WORLD_SIZE, RenderConfig.WORLD_SIZE);
     }
 }
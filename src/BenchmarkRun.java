@@ -0,0 +1,139 @@
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Hardware qualification run for the hidden benchmark mission.
+ *
+ * The mission keeps the usual update, collision and render paths, but instead of a
+ * phase pattern it holds a target number of fish on screen and raises it step by
+ * step. Every window of frames is checked against the frame budget of the rate the
+ * loop paces at (GameLoop.frameRate); when too many frames are late for
+ * FAILED_WINDOWS_TO_STOP windows in a row, the run ends.
+ * The result is the highest fish count that still kept frames on time, with the
+ * average tick and paint cost per frame at that load.
+ */
+public class BenchmarkRun {
+
+    private static final int START_FISH = 20;
+    private static final int MIN_STEP = 20;
+    private static final int MAX_FISH = 20_000;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final double REQUIRED_ON_TIME = 0.95;
+    private static final int FAILED_WINDOWS_TO_STOP = 2;
+
+    private final int refreshRate;
+    private final long budgetNanos;
+    private final Random random = new Random(42);   // same fish on every machine
+
+    private int targetFish = START_FISH;
+    private int collisions = 0;
+
+    // Current window
+    private long windowStart = 0;
+    private int frames = 0;
+    private int lateFrames = 0;
+    private long windowTickNanos = 0;
+    private long windowPaintNanos = 0;
+
+    private int failedWindows = 0;
+    private int sustainedFish = 0;
+    private double sustainedTickMillis = 0;
+    private double sustainedPaintMillis = 0;
+    private double sustainedOnTime = 0;
+    private Result result;
+
+    public BenchmarkRun(int refreshRate) {
+        this.refreshRate = refreshRate;
+        this.budgetNanos = 1_000_000_000L / refreshRate;
+    }
+
+    public int getTargetFish() {
+        return targetFish;
+    }
+
+    public SpawnInstruction nextSpawn() {
+        return PatternManager.benchmarkSpawn(random);
+    }
+
+    public void collision() {
+        collisions++;
+    }
+
+    public boolean isFinished() {
+        return result != null;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    // Called once per presented frame with the time spent in its ticks and in painting
+    public void frame(long tickNanos, long paintNanos) {
+        if (result != null) return;
+
+        long now = System.nanoTime();
+        if (windowStart == 0) windowStart = now;
+
+        frames++;
+        if (tickNanos + paintNanos > budgetNanos) lateFrames++;
+        windowTickNanos += tickNanos;
+        windowPaintNanos += paintNanos;
+
+        if (now - windowStart >= WINDOW_NANOS) {
+            endWindow();
+            windowStart = now;
+            frames = lateFrames = 0;
+            windowTickNanos = windowPaintNanos = 0;
+        }
+    }
+
+    private void endWindow() {
+        double onTime = 1.0 - (double) lateFrames / frames;
+
+        if (onTime >= REQUIRED_ON_TIME) {
+            failedWindows = 0;
+            sustainedFish = targetFish;
+            sustainedTickMillis = windowTickNanos / 1e6 / frames;
+            sustainedPaintMillis = windowPaintNanos / 1e6 / frames;
+            sustainedOnTime = onTime;
+
+            if (targetFish >= MAX_FISH) {
+                finish();
+            } else {
+                // Grow by about 10% so the search stays short on fast machines
+                targetFish = Math.min(MAX_FISH, targetFish + Math.max(MIN_STEP, targetFish / 10));
+            }
+        } else if (++failedWindows >= FAILED_WINDOWS_TO_STOP) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        result = new Result(sustainedFish, targetFish, refreshRate, budgetNanos / 1e6, sustainedOnTime,
+                sustainedTickMillis, sustainedPaintMillis, collisions,
+                RenderConfig.getInternalResolution(), machineDescription());
+    }
+
+    private static String machineDescription() {
+        return String.format(Locale.ROOT, "%s %s, %d cores, Java %s",
+                System.getProperty("os.name"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors(), System.getProperty("java.version"));
+    }
+
+    // onTimeShare: measured share of frames within budget in the last sustained window
+    public record Result(int sustainableFish, int peakFish, int refreshRate, double frameBudgetMillis,
+                         double onTimeShare, double tickMillis, double paintMillis, int collisions,
+                         int renderResolution, String machine) {
+
+        public String describe() {
+            return String.format(Locale.ROOT,
+                    "Sustainable fish: %d (stopped at %d)%n"
+                            + "Frame budget: %.1f ms at %d Hz, %.1f%% of frames on time (target %.0f%%)%n"
+                            + "Per frame at that load: tick %.2f ms, paint %.2f ms%n"
+                            + "Render resolution: %d px%n"
+                            + "Machine: %s",
+                    sustainableFish, peakFish, frameBudgetMillis, refreshRate, onTimeShare * 100, REQUIRED_ON_TIME * 100,
+                    tickMillis, paintMillis, renderResolution, machine);
+        }
+    }
+}
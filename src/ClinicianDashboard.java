@@ -0,0 +1,517 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Progress pages for clinicians, served over HTTP. Off unless -Daquavision.dashboardPort
+ * is set.
+ *
+ * The pages hold a patient's treatment history. By default the server only listens on
+ * the loopback interface. -Daquavision.dashboardBind=0.0.0.0 (or one address) serves
+ * other devices on the clinic network, and then -Daquavision.dashboardToken is
+ * required: every request must carry it as "Authorization: Bearer <token>", as
+ * ?token=<token> (which also sets a cookie so the links between pages work), or in that
+ * cookie. With a token set, it is required on loopback too. There is no TLS; the token
+ * only keeps out devices that do not know it.
+ *
+ *   /                             mission progress and the latest attempts (HTML)
+ *   /attempts?mission=3           attempt history, newest first (HTML)
+ *   /daily?mission=3              totals per day, including rolled-up days (HTML)
+ *   /api/progress                 mission_progress (JSON)
+ *   /api/attempts?mission=3       attempt_history, newest first (JSON); limit=N, up to 5000
+ *   /api/daily?mission=3          attempt_daily, newest first (JSON); limit=N
+ *
+ * Requests run on virtual threads and never touch Swing. They read through a pool of
+ * POOL_SIZE read-only connections, so at most that many queries run at once and the
+ * rest wait for a connection. The database is in WAL mode, so those reads and the
+ * game's writes do not wait for each other.
+ *
+ * Built pages are kept until the game next writes progress or history
+ * (DatabaseManager.getDataVersion()). That version is also the page's ETag: a repeat
+ * request is answered from the cache, or with 304 when the client still has the page.
+ */
+public class ClinicianDashboard {
+
+    private static final int POOL_SIZE = 2;
+    private static final long POOL_WAIT_MS = 5000;
+    private static final int DEFAULT_LIMIT = 200;
+    private static final int MAX_LIMIT = 5000;
+    private static final int OVERVIEW_ATTEMPTS = 20;
+    private static final int MAX_CACHED_PAGES = 64;
+
+    private static final String TOKEN = System.getProperty("aquavision.dashboardToken", "").trim();
+    private static final String TOKEN_COOKIE = "aquavision_token";
+
+    // Part of every ETag, so a tag from an earlier run of the game never matches
+    private static final String RUN = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final BlockingQueue<Connection> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final Map<String, Page> cache = new ConcurrentHashMap<>();
+    private static HttpServer server;
+
+    private record Page(long version, String etag, String contentType, byte[] body) {
+    }
+
+    private record Progress(int mission, int attempts, int completions, int highestPhase, String lastUpdated) {
+        double successRate() {
+            return attempts > 0 ? completions * 100.0 / attempts : 0;
+        }
+    }
+
+    private record Attempt(long id, int mission, String date, int highestPhase, boolean completed,
+                           double seconds, String contrastSchedule, String qualityChanges) {
+    }
+
+    private record Day(String day, int mission, int attempts, int completions, int bestPhase, double seconds) {
+        double successRate() {
+            return attempts > 0 ? completions * 100.0 / attempts : 0;
+        }
+    }
+
+    private interface View {
+        String render(Connection conn, Integer mission, int limit) throws SQLException;
+    }
+
+    public static synchronized void start() {
+        int port = Integer.getInteger("aquavision.dashboardPort", 0);
+        if (port <= 0 || server != null) return;
+
+        try {
+            String bind = System.getProperty("aquavision.dashboardBind", "127.0.0.1");
+            InetAddress address = InetAddress.getByName(bind);
+            if (!address.isLoopbackAddress() && TOKEN.isEmpty()) {
+                System.err.println("Clinician dashboard not started: serving on " + bind
+                        + " needs -Daquavision.dashboardToken");
+                return;
+            }
+
+            for (int i = 0; i < POOL_SIZE; i++) {
+                pool.add(DatabaseManager.getReadOnlyConnection());
+            }
+            server = HttpServer.create(new InetSocketAddress(address, port), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", ClinicianDashboard::handle);
+            server.start();
+            System.out.println("Clinician dashboard: http://" + bind + ":" + port + "/"
+                    + (TOKEN.isEmpty() ? "" : " (token required)"));
+        } catch (IOException | SQLException e) {
+            System.err.println("Clinician dashboard could not start: " + e.getMessage());
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendText(exchange, 405, "Method not allowed");
+                return;
+            }
+
+            Map<String, String> params = query(exchange.getRequestURI());
+            if (!authorized(exchange, params)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer realm=\"aquavision\"");
+                sendText(exchange, 401, "Token required");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            View view;
+            String contentType;
+            switch (path) {
+                case "/" -> {
+                    view = ClinicianDashboard::overviewHtml;
+                    contentType = "text/html; charset=utf-8";
+                }
+                case "/attempts" -> {
+                    view = ClinicianDashboard::attemptsHtml;
+                    contentType = "text/html; charset=utf-8";
+                }
+                case "/daily" -> {
+                    view = ClinicianDashboard::dailyHtml;
+                    contentType = "text/html; charset=utf-8";
+                }
+                case "/api/daily" -> {
+                    view = ClinicianDashboard::dailyJson;
+                    contentType = "application/json";
+                }
+                case "/api/progress" -> {
+                    view = ClinicianDashboard::progressJson;
+                    contentType = "application/json";
+                }
+                case "/api/attempts" -> {
+                    view = ClinicianDashboard::attemptsJson;
+                    contentType = "application/json";
+                }
+                default -> {
+                    sendText(exchange, 404, "Not found");
+                    return;
+                }
+            }
+
+            Integer mission;
+            int limit;
+            try {
+                mission = params.containsKey("mission") ? Integer.valueOf(params.get("mission")) : null;
+                limit = params.containsKey("limit")
+                        ? Math.max(1, Math.min(MAX_LIMIT, Integer.parseInt(params.get("limit"))))
+                        : DEFAULT_LIMIT;
+            } catch (NumberFormatException e) {
+                sendText(exchange, 400, "mission and limit must be numbers");
+                return;
+            }
+
+            Page page = page(path + "?" + mission + "&" + limit, contentType, view, mission, limit);
+            if (page == null) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, 503, "Busy, try again");
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", page.contentType());
+            exchange.getResponseHeaders().set("ETag", page.etag());
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            if (page.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            boolean head = method.equals("HEAD");
+            exchange.sendResponseHeaders(200, head ? -1 : page.body().length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(page.body());
+                }
+            }
+        }
+    }
+
+    // The cached page if the data has not changed since it was built, else a new one;
+    // null when no connection came free in time or the query failed
+    private static Page page(String key, String contentType, View view, Integer mission, int limit) {
+        long version = DatabaseManager.getDataVersion();
+        Page page = cache.get(key);
+        if (page != null && page.version() == version) return page;
+
+        Connection conn;
+        try {
+            conn = pool.poll(POOL_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (conn == null) return null;
+
+        try {
+            // Requests queued behind the one that just built it need not build it again
+            version = DatabaseManager.getDataVersion();
+            page = cache.get(key);
+            if (page != null && page.version() == version) return page;
+
+            byte[] body = view.render(conn, mission, limit).getBytes(StandardCharsets.UTF_8);
+            page = new Page(version, "\"" + RUN + "-" + version + "\"", contentType, body);
+            if (cache.size() >= MAX_CACHED_PAGES) cache.clear();
+            cache.put(key, page);
+            return page;
+        } catch (SQLException e) {
+            System.err.println("Dashboard query failed: " + e.getMessage());
+            return null;
+        } finally {
+            pool.add(conn);
+        }
+    }
+
+    // ================= QUERIES =================
+
+    private static List<Progress> progress(Connection conn, Integer mission) throws SQLException {
+        String sql = "SELECT mission, total_attempts, successful_completions, highest_phase_reached, last_updated "
+                + "FROM mission_progress" + (mission != null ? " WHERE mission = ?" : "") + " ORDER BY mission";
+
+        List<Progress> rows = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (mission != null) pstmt.setInt(1, mission);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Progress(rs.getInt("mission"), rs.getInt("total_attempts"),
+                            rs.getInt("successful_completions"), rs.getInt("highest_phase_reached"),
+                            rs.getString("last_updated")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<Attempt> attempts(Connection conn, Integer mission, int limit) throws SQLException {
+        String sql = "SELECT id, mission, attempt_date, highest_phase_reached, completed, total_time_seconds, "
+                + "contrast_schedule, quality_changes FROM attempt_history"
+                + (mission != null ? " WHERE mission = ?" : "") + " ORDER BY id DESC LIMIT ?";
+
+        List<Attempt> rows = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (mission != null) pstmt.setInt(i++, mission);
+            pstmt.setInt(i, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Attempt(rs.getLong("id"), rs.getInt("mission"), rs.getString("attempt_date"),
+                            rs.getInt("highest_phase_reached"), rs.getInt("completed") == 1,
+                            rs.getDouble("total_time_seconds"), rs.getString("contrast_schedule"),
+                            rs.getString("quality_changes")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<Day> daily(Connection conn, Integer mission, int limit) throws SQLException {
+        String sql = "SELECT day, mission, attempts, completions, best_phase, total_time_seconds FROM attempt_daily"
+                + (mission != null ? " WHERE mission = ?" : "") + " ORDER BY day DESC, mission LIMIT ?";
+
+        List<Day> rows = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (mission != null) pstmt.setInt(i++, mission);
+            pstmt.setInt(i, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Day(rs.getString("day"), rs.getInt("mission"), rs.getInt("attempts"),
+                            rs.getInt("completions"), rs.getInt("best_phase"), rs.getDouble("total_time_seconds")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // ================= JSON =================
+
+    private static String progressJson(Connection conn, Integer mission, int limit) throws SQLException {
+        StringBuilder sb = new StringBuilder("[");
+        for (Progress p : progress(conn, mission)) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"mission\":").append(p.mission())
+                    .append(",\"totalAttempts\":").append(p.attempts())
+                    .append(",\"successfulCompletions\":").append(p.completions())
+                    .append(",\"successRate\":").append(String.format(Locale.ROOT, "%.1f", p.successRate()))
+                    .append(",\"highestPhaseReached\":").append(p.highestPhase())
+                    .append(",\"lastUpdated\":").append(json(p.lastUpdated()))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String attemptsJson(Connection conn, Integer mission, int limit) throws SQLException {
+        StringBuilder sb = new StringBuilder("[");
+        for (Attempt a : attempts(conn, mission, limit)) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"id\":").append(a.id())
+                    .append(",\"mission\":").append(a.mission())
+                    .append(",\"attemptDate\":").append(json(a.date()))
+                    .append(",\"highestPhaseReached\":").append(a.highestPhase())
+                    .append(",\"completed\":").append(a.completed())
+                    .append(",\"totalTimeSeconds\":").append(String.format(Locale.ROOT, "%.1f", a.seconds()))
+                    .append(",\"contrastSchedule\":").append(json(a.contrastSchedule()))
+                    .append(",\"qualityChanges\":").append(json(a.qualityChanges()))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String dailyJson(Connection conn, Integer mission, int limit) throws SQLException {
+        StringBuilder sb = new StringBuilder("[");
+        for (Day d : daily(conn, mission, limit)) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"day\":").append(json(d.day()))
+                    .append(",\"mission\":").append(d.mission())
+                    .append(",\"attempts\":").append(d.attempts())
+                    .append(",\"completions\":").append(d.completions())
+                    .append(",\"successRate\":").append(String.format(Locale.ROOT, "%.1f", d.successRate()))
+                    .append(",\"bestPhase\":").append(d.bestPhase())
+                    .append(",\"totalTimeSeconds\":").append(String.format(Locale.ROOT, "%.1f", d.seconds()))
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String json(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // ================= HTML =================
+
+    private static String overviewHtml(Connection conn, Integer mission, int limit) throws SQLException {
+        StringBuilder sb = htmlStart("AquaVision progress");
+        sb.append("<h2>Missions</h2><table><tr><th>Mission</th><th>Attempts</th><th>Successful</th>"
+                + "<th>Success rate</th><th>Highest phase</th><th>Last played</th></tr>");
+        for (Progress p : progress(conn, mission)) {
+            sb.append("<tr><td><a href=\"/attempts?mission=").append(p.mission()).append("\">")
+                    .append(p.mission()).append("</a></td><td>").append(p.attempts())
+                    .append("</td><td>").append(p.completions())
+                    .append("</td><td>").append(String.format(Locale.ROOT, "%.1f%%", p.successRate()))
+                    .append("</td><td>").append(p.highestPhase()).append("/15")
+                    .append("</td><td>").append(html(p.lastUpdated())).append("</td></tr>");
+        }
+        sb.append("</table><h2>Latest attempts</h2>");
+        attemptTable(sb, attempts(conn, mission, OVERVIEW_ATTEMPTS));
+        sb.append("<p><a href=\"/attempts\">All attempts</a> | <a href=\"/daily\">By day</a></p>");
+        return htmlEnd(sb);
+    }
+
+    private static String attemptsHtml(Connection conn, Integer mission, int limit) throws SQLException {
+        StringBuilder sb = htmlStart(mission != null ? "Mission " + mission + " attempts" : "All attempts");
+        attemptTable(sb, attempts(conn, mission, limit));
+        sb.append("<p><a href=\"/\">Overview</a></p>");
+        return htmlEnd(sb);
+    }
+
+    private static String dailyHtml(Connection conn, Integer mission, int limit) throws SQLException {
+        StringBuilder sb = htmlStart(mission != null ? "Mission " + mission + " by day" : "All missions by day");
+        sb.append("<table><tr><th>Day</th><th>Mission</th><th>Attempts</th><th>Successful</th>"
+                + "<th>Success rate</th><th>Best phase</th><th>Time</th></tr>");
+        for (Day d : daily(conn, mission, limit)) {
+            sb.append("<tr><td>").append(html(d.day()))
+                    .append("</td><td>").append(d.mission())
+                    .append("</td><td>").append(d.attempts())
+                    .append("</td><td>").append(d.completions())
+                    .append("</td><td>").append(String.format(Locale.ROOT, "%.1f%%", d.successRate()))
+                    .append("</td><td>").append(d.bestPhase()).append("/15")
+                    .append("</td><td>").append(String.format(Locale.ROOT, "%.0f s", d.seconds()))
+                    .append("</td></tr>");
+        }
+        sb.append("</table><p><a href=\"/\">Overview</a></p>");
+        return htmlEnd(sb);
+    }
+
+    private static void attemptTable(StringBuilder sb, List<Attempt> attempts) {
+        sb.append("<table><tr><th>Date</th><th>Mission</th><th>Result</th><th>Highest phase</th>"
+                + "<th>Time</th><th>Contrast</th><th>Render quality</th></tr>");
+        for (Attempt a : attempts) {
+            sb.append("<tr><td>").append(html(a.date()))
+                    .append("</td><td>").append(a.mission())
+                    .append("</td><td>").append(a.completed() ? "completed" : "failed")
+                    .append("</td><td>").append(a.highestPhase()).append("/15")
+                    .append("</td><td>").append(String.format(Locale.ROOT, "%.0f s", a.seconds()))
+                    .append("</td><td>").append(html(a.contrastSchedule()))
+                    .append("</td><td>").append(html(a.qualityChanges())).append("</td></tr>");
+        }
+        sb.append("</table>");
+    }
+
+    // Reloads itself every 30 s; while nothing changed that costs a 304
+    private static StringBuilder htmlStart(String title) {
+        return new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\">")
+                .append("<meta http-equiv=\"refresh\" content=\"30\"><title>").append(html(title)).append("</title>")
+                .append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:left}</style></head><body>")
+                .append("<h1>").append(html(title)).append("</h1>");
+    }
+
+    private static String htmlEnd(StringBuilder sb) {
+        return sb.append("</body></html>").toString();
+    }
+
+    private static String html(String value) {
+        if (value == null) return "";
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    // ================= HTTP =================
+
+    // With a token set, the request must carry it; a token given in the query is kept in
+    // a cookie for the following requests
+    private static boolean authorized(HttpExchange exchange, Map<String, String> params) {
+        if (TOKEN.isEmpty()) return true;
+
+        String given = params.get("token");
+        boolean fromQuery = given != null;
+        if (given == null) {
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if (auth != null && auth.startsWith("Bearer ")) given = auth.substring(7).trim();
+        }
+        if (given == null) given = cookie(exchange, TOKEN_COOKIE);
+        if (given == null || !MessageDigest.isEqual(
+                given.getBytes(StandardCharsets.UTF_8), TOKEN.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+
+        if (fromQuery) {
+            exchange.getResponseHeaders().add("Set-Cookie", TOKEN_COOKIE + "="
+                    + URLEncoder.encode(TOKEN, StandardCharsets.UTF_8) + "; Path=/; HttpOnly; SameSite=Strict");
+        }
+        return true;
+    }
+
+    private static String cookie(HttpExchange exchange, String name) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) return null;
+        for (String header : headers) {
+            for (String pair : header.split(";")) {
+                pair = pair.trim();
+                if (pair.startsWith(name + "=")) {
+                    return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String query = uri.getQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) params.put(pair.substring(0, eq), pair.substring(eq + 1).trim());
+        }
+        return params;
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head ? -1 : body.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
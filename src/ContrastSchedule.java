@@ -0,0 +1,223 @@
+import java.awt.Color;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Per-eye contrast and luminance over a therapy session.
+ *
+ * Dominant-eye contrast is lowered gradually: each new session (a day with played
+ * attempts) starts a little lower than the previous one, and within a session it
+ * ramps down further over RAMP_SECONDS of play. Only time the game loop runs counts
+ * (Game calls resume() and pause() as it starts and stops the loop), so menus,
+ * pauses, dialogs and breaks between sittings add nothing to the dose. The amblyopic
+ * eye stays at full contrast.
+ *
+ * The dose is set by system properties, for the clinician to tune per patient:
+ *   -Daquavision.dominantSessionStep=0.02   contrast taken off per previous session
+ *   -Daquavision.dominantFloor=0.3          lowest dominant-eye contrast
+ *   -Daquavision.dominantRampDrop=0.15      contrast taken off over one session's ramp
+ *   -Daquavision.dominantLuminanceDrop=0.10 luminance taken off over the ramp
+ *   -Daquavision.rampMinutes=20             length of the ramp
+ *
+ * The ramp is quantized into LEVELS steps, and for every step a 256-entry lookup
+ * table per eye is built once, in linear light through sRGB gamma tables. Applying
+ * the schedule in a frame is then levelAt() plus table lookups; no Color objects or
+ * float math per fish.
+ */
+public class ContrastSchedule {
+
+    public static final int LEVELS = 64;
+
+    private static final double RAMP_SECONDS = 60 * Math.max(1, doseProperty("aquavision.rampMinutes", 20, 24 * 60));
+
+    // Dominant eye: session start contrast = max(FLOOR, 1 - sessionIndex * STEP)
+    private static final double DOMINANT_SESSION_STEP = doseProperty("aquavision.dominantSessionStep", 0.02, 1);
+    private static final double DOMINANT_FLOOR = doseProperty("aquavision.dominantFloor", 0.3, 1);
+    private static final double DOMINANT_RAMP_DROP = doseProperty("aquavision.dominantRampDrop", 0.15, 1);
+    private static final double DOMINANT_LUMINANCE_DROP = doseProperty("aquavision.dominantLuminanceDrop", 0.10, 1);
+
+    private static final int BACKGROUND = 8;   // matches Game's (8, 8, 8) background
+
+    // sRGB <-> linear light
+    private static final float[] TO_LINEAR = new float[256];
+    private static final int LINEAR_STEPS = 4096;
+    private static final int[] TO_SRGB = new int[LINEAR_STEPS + 1];
+
+    static {
+        for (int v = 0; v < 256; v++) {
+            double c = v / 255.0;
+            TO_LINEAR[v] = (float) (c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4));
+        }
+        for (int i = 0; i <= LINEAR_STEPS; i++) {
+            double l = (double) i / LINEAR_STEPS;
+            double c = l <= 0.0031308 ? l * 12.92 : 1.055 * Math.pow(l, 1 / 2.4) - 0.055;
+            TO_SRGB[i] = (int) Math.round(c * 255);
+        }
+    }
+
+    private static ContrastSchedule session;
+    private static LocalDate sessionDay;
+
+    private final int sessionIndex;
+    private final EyeRamp amblyopic;
+    private final EyeRamp dominant;
+    // Play time so far; touched on the EDT only
+    private long playedNanos = 0;
+    private long runningSince = -1;   // while the loop runs, when it last started
+    private final int[][] amblyopicLuts = new int[LEVELS][];
+    private final int[][] dominantLuts = new int[LEVELS][];
+
+    // Cached per-level colors for the direct (non-composited) render path
+    private int cachedAmblyopicRgb = -1;
+    private int cachedDominantRgb = -1;
+    private final Color[] amblyopicColors = new Color[LEVELS];
+    private final Color[] dominantColors = new Color[LEVELS];
+
+    // One schedule per day, UTC like the attempt dates; the session index comes from the
+    // attempt history. Left open past midnight, the next mission starts a new session.
+    public static synchronized ContrastSchedule session() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (session == null || !today.equals(sessionDay)) {
+            session = new ContrastSchedule(DatabaseManager.countPreviousSessions());
+            sessionDay = today;
+        }
+        return session;
+    }
+
+    // Full contrast for both eyes, used before any mission has started
+    public static ContrastSchedule neutral() {
+        return new ContrastSchedule(0, new EyeRamp(1, 1, 1, 1), new EyeRamp(1, 1, 1, 1));
+    }
+
+    private ContrastSchedule(int sessionIndex) {
+        this(sessionIndex,
+                new EyeRamp(1, 1, 1, 1),
+                dominantRamp(sessionIndex));
+    }
+
+    private ContrastSchedule(int sessionIndex, EyeRamp amblyopic, EyeRamp dominant) {
+        this.sessionIndex = sessionIndex;
+        this.amblyopic = amblyopic;
+        this.dominant = dominant;
+
+        for (int level = 0; level < LEVELS; level++) {
+            double t = (double) level / (LEVELS - 1);
+            amblyopicLuts[level] = buildLut(amblyopic.contrast(t), amblyopic.luminance(t));
+            dominantLuts[level] = buildLut(dominant.contrast(t), dominant.luminance(t));
+        }
+    }
+
+    private static EyeRamp dominantRamp(int sessionIndex) {
+        double start = Math.max(DOMINANT_FLOOR, 1.0 - sessionIndex * DOMINANT_SESSION_STEP);
+        double end = Math.max(DOMINANT_FLOOR, start - DOMINANT_RAMP_DROP);
+        return new EyeRamp(start, end, 1.0, 1.0 - DOMINANT_LUMINANCE_DROP);
+    }
+
+    // The game loop started: the ramp advances from now on
+    public void resume(long nanoTime) {
+        if (runningSince < 0) runningSince = nanoTime;
+    }
+
+    // The game loop stopped: the ramp holds where it is
+    public void pause(long nanoTime) {
+        if (runningSince < 0) return;
+        playedNanos += nanoTime - runningSince;
+        runningSince = -1;
+    }
+
+    public int levelAt(long nanoTime) {
+        long played = playedNanos + (runningSince >= 0 ? nanoTime - runningSince : 0);
+        double seconds = played / 1e9;
+        int level = (int) (seconds / RAMP_SECONDS * (LEVELS - 1));
+        return Math.max(0, Math.min(LEVELS - 1, level));
+    }
+
+    // Maps a layer channel value (0-255) to the displayed value above the background
+    public int[] amblyopicLut(int level) {
+        return amblyopicLuts[level];
+    }
+
+    public int[] dominantLut(int level) {
+        return dominantLuts[level];
+    }
+
+    public Color amblyopicColor(Color base, int level) {
+        if (base.getRGB() != cachedAmblyopicRgb) {
+            java.util.Arrays.fill(amblyopicColors, null);
+            cachedAmblyopicRgb = base.getRGB();
+        }
+        if (amblyopicColors[level] == null) {
+            amblyopicColors[level] = apply(base, amblyopicLuts[level]);
+        }
+        return amblyopicColors[level];
+    }
+
+    public Color dominantColor(Color base, int level) {
+        if (base.getRGB() != cachedDominantRgb) {
+            java.util.Arrays.fill(dominantColors, null);
+            cachedDominantRgb = base.getRGB();
+        }
+        if (dominantColors[level] == null) {
+            dominantColors[level] = apply(base, dominantLuts[level]);
+        }
+        return dominantColors[level];
+    }
+
+    // Stored with the attempt record, e.g. "session=3;ramp=1200s;amblyopic=1.00>1.00/1.00>1.00;..."
+    public String describe(int fromLevel, int toLevel) {
+        double from = (double) fromLevel / (LEVELS - 1);
+        double to = (double) toLevel / (LEVELS - 1);
+        return String.format(java.util.Locale.ROOT,
+                "session=%d;ramp=%ds;amblyopic=%.2f>%.2f/%.2f>%.2f;dominant=%.2f>%.2f/%.2f>%.2f",
+                sessionIndex, (int) RAMP_SECONDS,
+                amblyopic.contrast(from), amblyopic.contrast(to),
+                amblyopic.luminance(from), amblyopic.luminance(to),
+                dominant.contrast(from), dominant.contrast(to),
+                dominant.luminance(from), dominant.luminance(to));
+    }
+
+    // A dose property in [0, max]; a missing or invalid value keeps the default
+    private static double doseProperty(String property, double defaultValue, double max) {
+        String value = System.getProperty(property);
+        if (value == null) return defaultValue;
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed >= 0 && parsed <= max) return parsed;
+        } catch (NumberFormatException ignored) {
+        }
+        System.err.println("Invalid " + property + " '" + value + "', expected 0 to " + max + "; using " + defaultValue);
+        return defaultValue;
+    }
+
+    // Contrast pulls the fish toward the background, luminance scales the result;
+    // both in linear light. Entry 0 stays 0 so empty layer pixels show the background.
+    private static int[] buildLut(double contrast, double luminance) {
+        int[] lut = new int[256];
+        float bg = TO_LINEAR[BACKGROUND];
+        for (int v = 1; v < 256; v++) {
+            double linear = luminance * (bg + contrast * (TO_LINEAR[v] - bg));
+            int encoded = TO_SRGB[(int) Math.round(Math.max(0, Math.min(1, linear)) * LINEAR_STEPS)];
+            lut[v] = Math.max(0, encoded - BACKGROUND);
+        }
+        return lut;
+    }
+
+    private static Color apply(Color base, int[] lut) {
+        return new Color(
+                Math.min(255, BACKGROUND + lut[base.getRed()]),
+                Math.min(255, BACKGROUND + lut[base.getGreen()]),
+                Math.min(255, BACKGROUND + lut[base.getBlue()]));
+    }
+
+    // Linear ramp from start to end over the session, t in [0, 1]
+    private record EyeRamp(double contrastStart, double contrastEnd,
+                           double luminanceStart, double luminanceEnd) {
+        double contrast(double t) {
+            return contrastStart + (contrastEnd - contrastStart) * t;
+        }
+
+        double luminance(double t) {
+            return luminanceStart + (luminanceEnd - luminanceStart) * t;
+        }
+    }
+}
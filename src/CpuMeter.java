@@ -0,0 +1,83 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CPU used by this process, from the JVM's own CPU time counter.
+ *
+ * Percentages are of one core, so 100% means one core kept fully busy. A meter
+ * measures from start() on, counting only the time between resume() and pause(), and
+ * keeps separate totals for power saving on and off; setPowerSaving() starts a new
+ * segment when the mode changes. process() gives the load the OS reported most
+ * recently. Both are -1 where the JVM does not expose process CPU time.
+ */
+public class CpuMeter {
+
+    private static final com.sun.management.OperatingSystemMXBean OS =
+            ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean bean
+                    ? bean : null;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    // Totals per mode, index 1 with power saving on
+    private final long[] cpuNanos = new long[2];
+    private final long[] wallNanos = new long[2];
+    private int segmentMode = -1;   // mode of the running segment, -1 while paused
+    private long segmentCpu;
+    private long segmentWall;
+
+    public void start() {
+        java.util.Arrays.fill(cpuNanos, 0);
+        java.util.Arrays.fill(wallNanos, 0);
+        segmentMode = -1;
+    }
+
+    public void resume(boolean powerSaving) {
+        if (segmentMode >= 0) return;
+        segmentMode = powerSaving ? 1 : 0;
+        segmentCpu = processCpuNanos();
+        segmentWall = System.nanoTime();
+    }
+
+    public void pause() {
+        if (segmentMode < 0) return;
+        cpuNanos[segmentMode] += processCpuNanos() - segmentCpu;
+        wallNanos[segmentMode] += System.nanoTime() - segmentWall;
+        segmentMode = -1;
+    }
+
+    public void setPowerSaving(boolean powerSaving) {
+        if (segmentMode < 0 || segmentMode == (powerSaving ? 1 : 0)) return;
+        pause();
+        resume(powerSaving);
+    }
+
+    public double percent(boolean powerSaving) {
+        int mode = powerSaving ? 1 : 0;
+        if (OS == null || wallNanos[mode] <= 0) return -1;
+        return cpuNanos[mode] * 100.0 / wallNanos[mode];
+    }
+
+    // e.g. "CPU (% of one core) 14.2% power saving on 63 s, 31.0% power saving off 12 s";
+    // a mode that never ran is left out. Call after pause().
+    public String summary() {
+        List<String> parts = new ArrayList<>();
+        for (int mode = 1; mode >= 0; mode--) {
+            if (wallNanos[mode] <= 0) continue;
+            parts.add(String.format(Locale.ROOT, "%.1f%% power saving %s %d s",
+                    percent(mode == 1), mode == 1 ? "on" : "off", wallNanos[mode] / 1_000_000_000L));
+        }
+        return parts.isEmpty() ? "CPU not measured" : "CPU (% of one core) " + String.join(", ", parts);
+    }
+
+    // Recent whole-process load, same unit
+    public static double process() {
+        if (OS == null) return -1;
+        double load = OS.getProcessCpuLoad();
+        return load < 0 ? -1 : load * CORES * 100;
+    }
+
+    private static long processCpuNanos() {
+        return OS == null ? -1 : OS.getProcessCpuTime();
+    }
+}
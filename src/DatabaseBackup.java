@@ -0,0 +1,169 @@
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scheduled online backups of progress.db.
+ *
+ * The live database is copied with SQLite's backup API, PAGES_PER_STEP pages at a
+ * time, so the game can keep writing and the copy is always a consistent snapshot (a
+ * plain file copy can catch a write half done). Before every step, and between the
+ * chunks of the compression and the check, the backup thread waits for as long as a
+ * mission is being played: backups only use time while nobody plays. The thread runs
+ * at the lowest priority.
+ *
+ * The copy is gzipped into ~/.aquavision/backups/progress-<time>.db.gz, and that file
+ * is decompressed again and checked with PRAGMA integrity_check before it counts. Once
+ * it passes, backups beyond the newest KEEP are deleted.
+ *
+ * -Daquavision.backupHours=24 sets the interval, 0 turns backups off;
+ * -Daquavision.backupKeep=7 sets how many are kept.
+ */
+public class DatabaseBackup {
+
+    private static final int HOURS = Integer.getInteger("aquavision.backupHours", 24);
+    private static final int KEEP = Math.max(1, Integer.getInteger("aquavision.backupKeep", 7));
+
+    private static final int PAGES_PER_STEP = 16;
+    private static final int BUSY_SLEEP_MS = 100;
+    private static final int BUSY_RETRIES = 50;
+    private static final long FIRST_DELAY_MINUTES = 2;
+    private static final int CHUNK = 64 * 1024;
+
+    private static final File DIR = new File(DatabaseManager.getDatabaseFile().getParentFile(), "backups");
+    private static final String PREFIX = "progress-";
+    private static final String SUFFIX = ".db.gz";
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "database-backup");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    // First backup once the newest one is an interval old, but not in the first minutes
+    // of a session; then every interval
+    public static void schedule() {
+        if (HOURS <= 0) return;
+
+        long interval = TimeUnit.HOURS.toMinutes(HOURS);
+        File[] backups = backups();
+        long age = backups.length == 0 ? interval
+                : TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - backups[0].lastModified());
+        long first = Math.max(FIRST_DELAY_MINUTES, interval - age);
+        scheduler.scheduleWithFixedDelay(DatabaseBackup::backupNow, first, interval, TimeUnit.MINUTES);
+    }
+
+    // Writes, verifies and rotates one backup; returns it, or null if it failed
+    public static synchronized File backupNow() {
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File copy = new File(DIR, PREFIX + stamp + ".db.tmp");
+        File partial = new File(DIR, PREFIX + stamp + SUFFIX + ".tmp");
+        File check = new File(DIR, PREFIX + stamp + ".check.tmp");
+        File backup = new File(DIR, PREFIX + stamp + SUFFIX);
+        long start = System.nanoTime();
+
+        try {
+            DIR.mkdirs();
+            copy(copy);
+            compress(copy, partial);
+            verify(partial, check);
+            Files.move(partial.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            rotate();
+            System.out.println(String.format(Locale.ROOT, "Database backup: %s (%d KB, %.1f s)",
+                    backup, backup.length() / 1024, (System.nanoTime() - start) / 1e9));
+            return backup;
+        } catch (IOException | SQLException e) {
+            System.err.println("Database backup failed: " + e.getMessage());
+            return null;
+        } finally {
+            copy.delete();
+            partial.delete();
+            check.delete();
+        }
+    }
+
+    private static void copy(File target) throws SQLException {
+        GameLoop.awaitIdle();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            int rc = conn.unwrap(SQLiteConnection.class).getDatabase().backup("main", target.getAbsolutePath(),
+                    (remaining, pageCount) -> GameLoop.awaitIdle(), BUSY_SLEEP_MS, BUSY_RETRIES, PAGES_PER_STEP);
+            if (rc != SQLiteErrorCode.SQLITE_OK.code) {
+                throw new SQLException("backup stopped with SQLite code " + rc);
+            }
+        }
+    }
+
+    private static void compress(File source, File target) throws IOException {
+        try (InputStream in = new FileInputStream(source);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(target), CHUNK)) {
+            transfer(in, out);
+        }
+    }
+
+    // Checks the backup as it was stored: the gzip stream and then the database in it
+    private static void verify(File backup, File scratch) throws IOException, SQLException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(backup), CHUNK);
+             OutputStream out = new FileOutputStream(scratch)) {
+            transfer(in, out);
+        }
+
+        GameLoop.awaitIdle();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + scratch.getAbsolutePath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA integrity_check")) {
+            String result = rs.next() ? rs.getString(1) : "no result";
+            if (!"ok".equals(result)) {
+                throw new SQLException("integrity check of " + backup.getName() + ": " + result);
+            }
+        }
+    }
+
+    private static void transfer(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[CHUNK];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            GameLoop.awaitIdle();
+            out.write(buffer, 0, n);
+        }
+    }
+
+    private static void rotate() {
+        File[] backups = backups();
+        for (int i = KEEP; i < backups.length; i++) {
+            if (!backups[i].delete()) {
+                System.err.println("Could not delete old backup " + backups[i]);
+            }
+        }
+    }
+
+    // Newest first; the time stamp in the name sorts
+    private static File[] backups() {
+        File[] files = DIR.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (files == null) return new File[0];
+        Arrays.sort(files, (a, b) -> b.getName().compareTo(a.getName()));
+        return files;
+    }
+}
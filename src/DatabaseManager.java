@@ -2,19 +2,73 @@ import java.awt.*;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DatabaseManager {
+    private static final java.io.File DB_FILE;
     private static final String DB_URL;
 
     static {
         String userHome = System.getProperty("user.home");
         java.io.File appDir = new java.io.File(userHome, ".aquavision");
         appDir.mkdirs();
-        DB_URL = "jdbc:sqlite:" + new java.io.File(appDir, "progress.db").getAbsolutePath();
+        DB_FILE = new java.io.File(appDir, "progress.db");
+        DB_URL = "jdbc:sqlite:" + DB_FILE.getAbsolutePath();
     }
 
+    // Call statistics, exposed through AquaVisionMetrics
+    private static final AtomicLong calls = new AtomicLong();
+    private static final AtomicLong failedCalls = new AtomicLong();
+    private static final AtomicInteger callsInProgress = new AtomicInteger();
+    private static final LatencyRecorder callLatency = new LatencyRecorder("database calls", 1024);
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    // Bumped by every write to mission_progress, attempt_history or attempt_rollup, so readers can
+    // tell whether what they built from those tables is still current
+    private static final AtomicLong dataVersion = new AtomicLong();
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        // Background writers (HistoryRetention) hold the write lock for a few ms; wait
+        // for them instead of failing
+        Properties props = new Properties();
+        props.setProperty("busy_timeout", "2000");
+        return DriverManager.getConnection(DB_URL, props);
+    }
+
+    // For readers outside the game (ClinicianDashboard); SQLite refuses writes on it
+    public static Connection getReadOnlyConnection() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("open_mode", "1");   // SQLITE_OPEN_READONLY
+        props.setProperty("busy_timeout", "2000");
+        return DriverManager.getConnection(DB_URL, props);
+    }
+
+    public static java.io.File getDatabaseFile() {
+        return DB_FILE;
+    }
+
+    public static long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    public static long getCallCount() {
+        return calls.get();
+    }
+
+    public static long getFailedCallCount() {
+        return failedCalls.get();
+    }
+
+    // Callers currently waiting on or running a statement
+    public static int getCallsInProgress() {
+        return callsInProgress.get();
+    }
+
+    public static LatencyRecorder getCallLatency() {
+        return callLatency;
     }
 
     public static void initialize() {
@@ -46,18 +100,90 @@ public class DatabaseManager {
         completed INTEGER,  -- 1 = tamamlandı, 0 = başarısız
         total_time_seconds REAL
     );
+    """;
+
+        // Attempts older than the retention window, folded into one row per day and
+        // mission by compactHistory()
+        String rollupSql = """
+    CREATE TABLE IF NOT EXISTS attempt_rollup (
+        day TEXT,
+        mission INTEGER,
+        attempts INTEGER,
+        completions INTEGER,
+        best_phase INTEGER,
+        total_time_seconds REAL,
+        outcomes TEXT,  -- completed of each attempt in order, e.g. '0110'
+        PRIMARY KEY (day, mission)
+    );
+    """;
+
+        // Per-day totals over both, the same before and after compaction
+        String dailySql = """
+    CREATE VIEW IF NOT EXISTS attempt_daily AS
+    SELECT day, mission, SUM(attempts) AS attempts, SUM(completions) AS completions,
+           MAX(best_phase) AS best_phase, SUM(total_time_seconds) AS total_time_seconds
+    FROM (
+        SELECT day, mission, attempts, completions, best_phase, total_time_seconds FROM attempt_rollup
+        UNION ALL
+        SELECT date(attempt_date), mission, COUNT(*), SUM(completed), MAX(highest_phase_reached),
+               SUM(total_time_seconds)
+        FROM attempt_history GROUP BY date(attempt_date), mission
+    )
+    GROUP BY day, mission;
+    """;
+
+        Call call = Call.begin("initialize");
+        String benchmarkSql = """
+    CREATE TABLE IF NOT EXISTS benchmark_results (
+        id INTEGER PRIMARY KEY AUTOINCREMENT,
+        run_date TEXT DEFAULT CURRENT_TIMESTAMP,
+        sustainable_fish INTEGER,
+        peak_fish INTEGER,
+        refresh_rate INTEGER,
+        render_resolution INTEGER,
+        tick_ms REAL,
+        paint_ms REAL,
+        machine TEXT
+    );
     """;
 
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
 
+            // Only takes effect before the first page is written, so ahead of the switch to
+            // WAL; HistoryRetention converts older databases
+            stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+            // Write-ahead log: readers (the dashboard) and the game's writes never block each other
+            stmt.execute("PRAGMA journal_mode=WAL");
             stmt.execute(sql);
             stmt.execute(settingsSql);
             stmt.execute(historySql);
+            stmt.execute(benchmarkSql);
+            stmt.execute(rollupSql);
+            stmt.execute(dailySql);
+            addColumnIfMissing(conn, "attempt_history", "contrast_schedule", "TEXT");
+            addColumnIfMissing(conn, "attempt_history", "quality_changes", "TEXT");
             System.out.println("DB ready!");
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("DB Start Error: " + e.getMessage());
+        } finally {
+            call.finish();
+        }
+    }
+
+    // Older databases were created before the column existed
+    private static void addColumnIfMissing(Connection conn, String table, String column, String type)
+            throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
         }
     }
 
@@ -72,14 +198,19 @@ public class DatabaseManager {
                 last_updated = CURRENT_TIMESTAMP
             """;
 
+        Call call = Call.begin("incrementAttempt");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, mission);
             pstmt.executeUpdate();
+            dataVersion.incrementAndGet();
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Attempt Increment Error: " + e.getMessage());
+        } finally {
+            call.finish();
         }
     }
 
@@ -92,15 +223,20 @@ public class DatabaseManager {
                 last_updated = CURRENT_TIMESTAMP
             """;
 
+        Call call = Call.begin("updateHighestPhase");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, mission);
             pstmt.setInt(2, phase + 1);
             pstmt.executeUpdate();
+            dataVersion.incrementAndGet();
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Phase Update Error: " + e.getMessage());
+        } finally {
+            call.finish();
         }
     }
 
@@ -112,20 +248,26 @@ public class DatabaseManager {
             WHERE mission = ?
             """;
 
+        Call call = Call.begin("incrementCompletion");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, mission);
             pstmt.executeUpdate();
+            dataVersion.incrementAndGet();
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Incremention Error: " + e.getMessage());
+        } finally {
+            call.finish();
         }
     }
 
     public static String getProgressReport(int mission) {
         String sql = "SELECT * FROM mission_progress WHERE mission = ?";
 
+        Call call = Call.begin("getProgressReport");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
@@ -147,7 +289,10 @@ public class DatabaseManager {
                 );
             }
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Document error: " + e.getMessage());
+        } finally {
+            call.finish();
         }
         return "Not played yet";
     }
@@ -169,6 +314,7 @@ public class DatabaseManager {
                 last_updated = CURRENT_TIMESTAMP
             """;
 
+        Call call = Call.begin("saveUserSettings");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
@@ -178,13 +324,17 @@ public class DatabaseManager {
             pstmt.executeUpdate();
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Settings save error: " + e.getMessage());
+        } finally {
+            call.finish();
         }
     }
 
     public static void loadUserSettings() {
         String sql = "SELECT * FROM user_settings WHERE id = 1";
 
+        Call call = Call.begin("loadUserSettings");
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
@@ -194,23 +344,27 @@ public class DatabaseManager {
                 Color playerColor = new Color(rs.getInt("player_color"), true);
                 Color enemyColor  = new Color(rs.getInt("enemy_color"), true);
 
-                LazyEyeConfig.setRightEye(isRightEye);
-                LazyEyeConfig.setPlayerColor(playerColor);
-                LazyEyeConfig.setEnemyColor(enemyColor);
+                LazyEyeConfig.loaded(new LazyEyeConfig.Settings(isRightEye, playerColor, enemyColor));
             }
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Settings yükleme hatası: " + e.getMessage());
+        } finally {
+            call.finish();
         }
     }
 
-    public static void logAttempt(int mission, int highestPhase, boolean completed, double totalSeconds) {
+    public static void logAttempt(int mission, int highestPhase, boolean completed, double totalSeconds,
+                                  String contrastSchedule, String qualityChanges) {
         String sql = """
         INSERT INTO attempt_history 
-        (mission, attempt_date, highest_phase_reached, completed, total_time_seconds)
-        VALUES (?, CURRENT_TIMESTAMP, ?, ?, ?)
+        (mission, attempt_date, highest_phase_reached, completed, total_time_seconds, contrast_schedule,
+         quality_changes)
+        VALUES (?, CURRENT_TIMESTAMP, ?, ?, ?, ?, ?)
         """;
 
+        Call call = Call.begin("logAttempt");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
@@ -218,66 +372,283 @@ public class DatabaseManager {
             pstmt.setInt(2, highestPhase);
             pstmt.setInt(3, completed ? 1 : 0);
             pstmt.setDouble(4, totalSeconds);
+            pstmt.setString(5, contrastSchedule);
+            pstmt.setString(6, qualityChanges);
             pstmt.executeUpdate();
+            dataVersion.incrementAndGet();
 
         } catch (SQLException e) {
+            call.fail();
             System.err.println("Attempt log hatası: " + e.getMessage());
+        } finally {
+            call.finish();
         }
     }
-    public static String generateAsciiSuccessRateGraph(int mission) {
-        String sql = "SELECT completed FROM attempt_history WHERE mission = ? ORDER BY attempt_date ASC";
 
-        List<Boolean> successes = new ArrayList<>();
+    // Days with at least one attempt before today; each day counts as one therapy session
+    public static int countPreviousSessions() {
+        String sql = """
+        SELECT COUNT(*) AS sessions FROM (
+            SELECT date(attempt_date) FROM attempt_history WHERE date(attempt_date) < date('now')
+            UNION
+            SELECT day FROM attempt_rollup WHERE day < date('now')
+        )
+        """;
+
+        Call call = Call.begin("countPreviousSessions");
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) return rs.getInt("sessions");
+
+        } catch (SQLException e) {
+            call.fail();
+            System.err.println("Session count error: " + e.getMessage());
+        } finally {
+            call.finish();
+        }
+        return 0;
+    }
+
+    // ================= BENCHMARK =================
+
+    public static void saveBenchmarkResult(int sustainableFish, int peakFish, int refreshRate,
+                                           int renderResolution, double tickMillis, double paintMillis,
+                                           String machine) {
+        String sql = """
+        INSERT INTO benchmark_results
+        (sustainable_fish, peak_fish, refresh_rate, render_resolution, tick_ms, paint_ms, machine)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        Call call = Call.begin("saveBenchmarkResult");
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, sustainableFish);
+            pstmt.setInt(2, peakFish);
+            pstmt.setInt(3, refreshRate);
+            pstmt.setInt(4, renderResolution);
+            pstmt.setDouble(5, tickMillis);
+            pstmt.setDouble(6, paintMillis);
+            pstmt.setString(7, machine);
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            call.fail();
+            System.err.println("Benchmark save error: " + e.getMessage());
+        } finally {
+            call.finish();
+        }
+    }
 
+    // Highest phase stored for the mission, 0 if it was never played
+    public static int getHighestPhase(int mission) {
+        String sql = "SELECT highest_phase_reached FROM mission_progress WHERE mission = ?";
+
+        Call call = Call.begin("getHighestPhase");
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, mission);
             ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) return rs.getInt("highest_phase_reached");
+
+        } catch (SQLException e) {
+            call.fail();
+            System.err.println("Highest phase read error: " + e.getMessage());
+        } finally {
+            call.finish();
+        }
+        return 0;
+    }
+
+    // Last mission completed at least once, 0 if none
+    public static int getLastCompletedMission() {
+        String sql = "SELECT MAX(mission) AS last_completed FROM mission_progress WHERE successful_completions > 0";
 
+        Call call = Call.begin("getLastCompletedMission");
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) return rs.getInt("last_completed");
+
+        } catch (SQLException e) {
+            call.fail();
+            System.err.println("Database okuma hatası: " + e.getMessage());
+        } finally {
+            call.finish();
+        }
+        return 0;
+    }
+
+    // Whether each attempt of the mission was completed, oldest first; compacted days
+    // first, from their rollups, then the attempts still kept. Null if the query failed.
+    public static List<Boolean> getAttemptOutcomes(int mission) {
+        String rollupSql = "SELECT outcomes FROM attempt_rollup WHERE mission = ? ORDER BY day ASC";
+        String sql = "SELECT completed FROM attempt_history WHERE mission = ? ORDER BY attempt_date ASC, id ASC";
+
+        List<Boolean> successes = new ArrayList<>();
+
+        Call call = Call.begin("getAttemptOutcomes");
+        try (Connection conn = getConnection();
+             PreparedStatement rollups = conn.prepareStatement(rollupSql);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            // One transaction, so a compaction batch cannot move attempts between the two reads
+            conn.setAutoCommit(false);
+            rollups.setInt(1, mission);
+            ResultSet rs = rollups.executeQuery();
+            while (rs.next()) {
+                for (char c : rs.getString("outcomes").toCharArray()) {
+                    successes.add(c == '1');
+                }
+            }
+
+            pstmt.setInt(1, mission);
+            rs = pstmt.executeQuery();
             while (rs.next()) {
                 successes.add(rs.getInt("completed") == 1);
             }
+            conn.commit();
 
         } catch (SQLException e) {
-            return "Graph could not be loaded.";
-        }
-
-        if (successes.isEmpty()) {
-            return "No attempts recorded for this mission yet.";
+            call.fail();
+            System.err.println("Attempt history error: " + e.getMessage());
+            return null;
+        } finally {
+            call.finish();
         }
+        return successes;
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== MISSION ").append(mission).append(" SUCCESS RATE PROGRESS ===\n\n");
+    // ================= RETENTION =================
+
+    /**
+     * Folds up to batchSize of the oldest attempts from before the last keepDays days
+     * into attempt_rollup and deletes them, in one transaction. Returns how many were
+     * compacted: 0 when nothing is left to do, -1 if it failed.
+     */
+    public static int compactHistory(int keepDays, int batchSize) {
+        String lastSql = """
+        SELECT MAX(id) FROM (
+            SELECT id FROM attempt_history
+            WHERE date(attempt_date) < date('now', ?)
+            ORDER BY id LIMIT ?
+        )
+        """;
+        // Days already partly rolled up get the new attempts appended
+        String rollupSql = """
+        INSERT INTO attempt_rollup
+        (day, mission, attempts, completions, best_phase, total_time_seconds, outcomes)
+        SELECT date(attempt_date), mission, COUNT(*), SUM(completed), MAX(highest_phase_reached),
+               SUM(total_time_seconds), group_concat(completed, '' ORDER BY attempt_date, id)
+        FROM attempt_history
+        WHERE id <= ? AND date(attempt_date) < date('now', ?)
+        GROUP BY date(attempt_date), mission
+        ON CONFLICT (day, mission) DO UPDATE SET
+            attempts = attempts + excluded.attempts,
+            completions = completions + excluded.completions,
+            best_phase = MAX(best_phase, excluded.best_phase),
+            total_time_seconds = total_time_seconds + excluded.total_time_seconds,
+            outcomes = outcomes || excluded.outcomes
+        """;
+        String deleteSql = "DELETE FROM attempt_history WHERE id <= ? AND date(attempt_date) < date('now', ?)";
+        String window = "-" + keepDays + " days";
 
-        // Draw percentage lines from 100% down to 0% in 20% steps
-        for (int level = 100; level >= 0; level -= 20) {
-            sb.append(String.format("%3d%% |", level));
+        Call call = Call.begin("compactHistory");
+        try (Connection conn = getConnection();
+             PreparedStatement last = conn.prepareStatement(lastSql);
+             PreparedStatement rollup = conn.prepareStatement(rollupSql);
+             PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+
+            conn.setAutoCommit(false);
+            try {
+                last.setString(1, window);
+                last.setInt(2, batchSize);
+                ResultSet rs = last.executeQuery();
+                long lastId = rs.next() ? rs.getLong(1) : 0;
+                if (rs.wasNull() || lastId == 0) {
+                    conn.rollback();
+                    return 0;
+                }
+
+                rollup.setLong(1, lastId);
+                rollup.setString(2, window);
+                rollup.executeUpdate();
+                delete.setLong(1, lastId);
+                delete.setString(2, window);
+                int deleted = delete.executeUpdate();
+                conn.commit();
+                dataVersion.incrementAndGet();
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            call.fail();
+            System.err.println("History compaction error: " + e.getMessage());
+            return -1;
+        } finally {
+            call.finish();
+        }
+    }
 
-            int cumulativeSuccess = 0;
-            for (int i = 0; i < successes.size(); i++) {
-                cumulativeSuccess += successes.get(i) ? 1 : 0;
-                double rate = (double) cumulativeSuccess / (i + 1) * 100.0;
+    // Returns up to the given number of free pages to the file system. A database from
+    // before incremental vacuum is converted first, with one full VACUUM.
+    public static void incrementalVacuum(int pages) {
+        Call call = Call.begin("incrementalVacuum");
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
 
-                sb.append(rate >= level ? " ■" : "  ");
+            int mode;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                mode = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (mode != AUTO_VACUUM_INCREMENTAL) {
+                // The full VACUUM holds the write lock throughout; leave it for a time
+                // nobody plays
+                if (GameLoop.isAnyRunning()) return;
+                stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+                stmt.execute("VACUUM");
+            } else {
+                stmt.execute("PRAGMA incremental_vacuum(" + pages + ")");
             }
-            sb.append("\n");
+        } catch (SQLException e) {
+            call.fail();
+            System.err.println("Vacuum error: " + e.getMessage());
+        } finally {
+            call.finish();
         }
+    }
+
+    // One public call: its Flight Recorder event and the call statistics
+    private static final class Call {
+        private final FlightEvents.DatabaseCall event;
+        private final long start = System.nanoTime();
 
-        // Bottom axis
-        sb.append("      +");
-        for (int i = 0; i < successes.size(); i++) {
-            sb.append("--");
+        private Call(String label) {
+            callsInProgress.incrementAndGet();
+            event = FlightEvents.DatabaseCall.begin(label);
         }
-        sb.append("\n        ");
-        for (int i = 0; i < successes.size(); i++) {
-            sb.append(String.format("%2d ", i + 1));
+
+        static Call begin(String label) {
+            return new Call(label);
         }
 
-        sb.append("\n\n");
-        sb.append("■ = Cumulative success rate reached or exceeded this level by that attempt\n");
-        sb.append("The graph shows cumulative (running) success rate – highlighting improvement over time!\n");
+        void fail() {
+            failedCalls.incrementAndGet();
+            event.fail();
+        }
 
-        return sb.toString();
+        void finish() {
+            callLatency.record(System.nanoTime() - start);
+            calls.incrementAndGet();
+            callsInProgress.decrementAndGet();
+            event.finish();
+        }
     }
 }
@@ -0,0 +1,75 @@
+import java.awt.*;
+
+class EnemyFish {
+    static final int WIDTH = 100;
+    static final int HEIGHT = 40;
+
+    double x, y, vx, vy, phase;     // phase kept in [-PI, PI), see FishKernel
+    long exitTick = FishTrajectory.NEVER;   // phase tick on which it has left the world
+    long contactTick = 0;                   // first phase tick it could touch the player
+    private double prevX, prevY;   // position before the last update
+    private int width = WIDTH;
+    private int height = HEIGHT;
+    private boolean facingRight;
+
+
+    EnemyFish(double x, double y, double vx, double vy, double phase) {
+        this.x = this.prevX = x;
+        this.y = this.prevY = y;
+        this.vx = vx;
+        this.vy = vy;
+        this.phase = FishKernel.wrapPhase(phase);
+        this.facingRight = vx > 0;
+    }
+
+
+    // Same arithmetic, in the same order, as FishKernel.integrate()
+    void update() {
+        prevX = x;
+        prevY = y;
+        x += vx;
+        y += vy;
+
+        y += FishKernel.sin(phase) * FishKernel.WOBBLE;
+        phase = FishKernel.advancePhase(phase);
+    }
+
+    // Result of a batched FishKernel step
+    void moveTo(double newX, double newY, double newPhase) {
+        prevX = x;
+        prevY = y;
+        x = newX;
+        y = newY;
+        phase = newPhase;
+    }
+
+    // Position to draw at; alpha: fraction of a tick since the last update, 0 gives the previous position
+    double drawX(double alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
+
+    double drawY(double alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    boolean isFacingRight() {
+        return facingRight;
+    }
+
+    void draw(Graphics g, Color enemyColor, double alpha, QualityGovernor.Tier tier) {
+        Graphics2D g2d = (Graphics2D) g;
+
+        double drawX = drawX(alpha);
+        double drawY = drawY(alpha);
+        if (tier.sprites) {
+            FishRenderer.drawSprite(g2d, drawX, drawY, width, height, enemyColor, facingRight);
+        } else {
+            FishRenderer.drawFish(g2d, (int) drawX, (int) drawY, width, height, enemyColor, facingRight, tier.antialias);
+        }
+    }
+
+    // Silhouette for the hit test, placed at ((int) x, (int) y) like the drawn fish
+    FishMask getMask() {
+        return FishMask.of(width, height, facingRight);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Per-fish arithmetic of the enemy swarm over primitive arrays.
+ *
+ * integrate() is EnemyFish.update() for a range of fish: move by the velocity and
+ * add the vertical wobble. touching() is the broad-phase box test against the
+ * player. This class is the scalar version; when the JVM runs with
+ * --add-modules jdk.incubator.vector and the optional FishVectorKernel was compiled
+ * (see src-incubator), that subclass does the same work several lanes at a time.
+ *
+ * The wobble phase is kept wrapped to [-PI, PI) and its sine is a fixed polynomial,
+ * evaluated with plain multiplies and adds in the same order everywhere. Java does
+ * not fuse or reorder them, so the scalar, vector and per-object paths produce
+ * bit-identical positions.
+ */
+public class FishKernel {
+
+    public static final double WOBBLE = 0.3;
+    public static final double PHASE_STEP = 0.1;
+
+    public static final double PI = Math.PI;
+    public static final double HALF_PI = Math.PI / 2;
+    public static final double TWO_PI = Math.PI * 2;
+
+    // Taylor coefficients of sin(x) on [-PI/2, PI/2], error below 1e-7
+    public static final double S3 = -1.0 / 6;
+    public static final double S5 = 1.0 / 120;
+    public static final double S7 = -1.0 / 5040;
+    public static final double S9 = 1.0 / 362880;
+    public static final double S11 = -1.0 / 39916800;
+
+    private static final FishKernel INSTANCE = load();
+
+    public static FishKernel get() {
+        return INSTANCE;
+    }
+
+    public boolean isVectorized() {
+        return false;
+    }
+
+    // -Daquavision.vectorKernel=false forces the scalar kernel
+    private static FishKernel load() {
+        if (!"false".equalsIgnoreCase(System.getProperty("aquavision.vectorKernel"))) {
+            try {
+                return (FishKernel) Class.forName("FishVectorKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled in, or jdk.incubator.vector not added to this JVM
+            }
+        }
+        return new FishKernel();
+    }
+
+    // x += vx; y += vy + wobble; phase advances (one tick for fish [from, to))
+    public void integrate(double[] x, double[] y, double[] vx, double[] vy, double[] phase, int from, int to) {
+        for (int i = from; i < to; i++) {
+            x[i] = x[i] + vx[i];
+            y[i] = (y[i] + vy[i]) + sin(phase[i]) * WOBBLE;
+            phase[i] = advancePhase(phase[i]);
+        }
+    }
+
+    // out[i] = minX < x[i] < maxX && minY < y[i] < maxY, for i in [from, to)
+    public void touching(double[] x, double[] y, int from, int to,
+                         double minX, double minY, double maxX, double maxY, boolean[] out) {
+        for (int i = from; i < to; i++) {
+            out[i] = x[i] > minX && x[i] < maxX && y[i] > minY && y[i] < maxY;
+        }
+    }
+
+    // sin(a) for a in [-PI, PI)
+    public static double sin(double a) {
+        if (a > HALF_PI) a = PI - a;
+        if (a < -HALF_PI) a = -PI - a;
+        double a2 = a * a;
+        double p = (((S11 * a2 + S9) * a2 + S7) * a2 + S5) * a2 + S3;
+        return a + a * a2 * p;
+    }
+
+    public static double advancePhase(double phase) {
+        return wrapPhase(phase + PHASE_STEP);
+    }
+
+    // Into [-PI, PI) for inputs below 3 * PI
+    public static double wrapPhase(double phase) {
+        return phase >= PI ? phase - TWO_PI : phase;
+    }
+}
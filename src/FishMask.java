@@ -0,0 +1,96 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact silhouette of a fish for collision: one bit per world pixel, set where
+ * FishRenderer fills the fish (drawn without antialiasing, as the sprite tiers
+ * show it). Each row is packed into long words, bit i of word w being column
+ * 64 * w + i.
+ *
+ * A mask is made once per size and facing and shared. Two fish touch when their
+ * masks, placed where drawFish puts them ((int) x, (int) y), have a set bit in
+ * common. overlaps() first rejects pairs whose silhouette boxes do not meet, then
+ * ANDs each overlapping row of one with the other's row shifted into place, so a
+ * test costs a handful of word operations per row.
+ */
+public final class FishMask {
+
+    private static final Map<Long, FishMask> masks = new ConcurrentHashMap<>();
+
+    private final int words;          // longs per row
+    private final long[] bits;        // row r starts at r * words
+    // Box of the set bits, relative to the fish position; empty when minX > maxX
+    private final int minX, minY, maxX, maxY;
+
+    private FishMask(int width, int height, long[] bits, int minX, int minY, int maxX, int maxY) {
+        this.words = (width + 63) >>> 6;
+        this.bits = bits;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public static FishMask of(int width, int height, boolean facingRight) {
+        long key = ((long) width << 32) | ((long) height << 1) | (facingRight ? 1 : 0);
+        return masks.computeIfAbsent(key, k -> build(width, height, facingRight));
+    }
+
+    private static FishMask build(int width, int height, boolean facingRight) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        FishRenderer.drawFish(g, 0, 0, width, height, Color.WHITE, facingRight, false);
+        g.dispose();
+
+        int words = (width + 63) >>> 6;
+        long[] bits = new long[words * height];
+        int minX = width, minY = height, maxX = -1, maxY = -1;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if ((image.getRGB(col, row) >>> 24) == 0) continue;
+                bits[row * words + (col >>> 6)] |= 1L << (col & 63);
+                minX = Math.min(minX, col);
+                maxX = Math.max(maxX, col);
+                minY = Math.min(minY, row);
+                maxY = Math.max(maxY, row);
+            }
+        }
+        return new FishMask(width, height, bits, minX, minY, maxX, maxY);
+    }
+
+    // Whether mask a at (ax, ay) and mask b at (bx, by) share a pixel
+    public static boolean overlaps(FishMask a, int ax, int ay, FishMask b, int bx, int by) {
+        // Silhouette boxes, in world pixels
+        int left = Math.max(ax + a.minX, bx + b.minX);
+        int right = Math.min(ax + a.maxX, bx + b.maxX);
+        int top = Math.max(ay + a.minY, by + b.minY);
+        int bottom = Math.min(ay + a.maxY, by + b.maxY);
+        if (left > right || top > bottom) return false;
+
+        // Walk a's words that cover the overlap; b's column for a's column c is c - dx
+        int dx = bx - ax;
+        int firstWord = (left - ax) >>> 6;
+        int lastWord = (right - ax) >>> 6;
+        for (int y = top; y <= bottom; y++) {
+            int aRow = (y - ay) * a.words;
+            int bRow = (y - by) * b.words;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long aBits = a.bits[aRow + w];
+                if (aBits != 0 && (aBits & b.wordAt(bRow, (w << 6) - dx)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    // 64 bits of a row starting at any column, zero outside the mask
+    private long wordAt(int rowStart, int column) {
+        int word = Math.floorDiv(column, 64);
+        int shift = Math.floorMod(column, 64);
+        long low = word >= 0 && word < words ? bits[rowStart + word] : 0;
+        if (shift == 0) return low;
+        long high = word + 1 >= 0 && word + 1 < words ? bits[rowStart + word + 1] : 0;
+        return (low >>> shift) | (high << (64 - shift));
+    }
+}
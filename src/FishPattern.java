@@ -0,0 +1,10 @@
+import java.util.ArrayList;
+import java.util.List;
+
+class FishPattern {
+    List<SpawnInstruction> spawns = new ArrayList<>();
+
+    public void addSpawn(long delay, double x, double y, double vx, double vy, int size) {
+        spawns.add(new SpawnInstruction(delay, x, y, vx, vy, size));
+    }
+}
@@ -1,9 +1,77 @@
 import java.awt.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class FishRenderer {
 
+    // Pre-rendered fish for the sprite quality tiers, least recently used dropped first
+    private static final int MAX_SPRITES = 32;
+    private static final Map<Long, BufferedImage> sprites = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_SPRITES;
+        }
+    };
+
     public static void drawFish(Graphics2D g2d, int x, int y, int width, int height, Color color, boolean facingRight) {
+        drawFish(g2d, x, y, width, height, color, facingRight, true);
+    }
+
+    /**
+     * Blits a cached image of the fish instead of filling its paths. The image is made
+     * at the device size the current transform (a plain scale) gives the fish, without
+     * antialiasing, so the blit is a pixel copy: every pixel is either fish or clear.
+     * Call on the EDT.
+     */
+    public static void drawSprite(Graphics2D g2d, double x, double y, int width, int height,
+                                  Color color, boolean facingRight) {
+        AffineTransform transform = g2d.getTransform();
+        double sx = transform.getScaleX();
+        double sy = transform.getScaleY();
+        int deviceW = (int) Math.round(width * sx);
+        int deviceH = (int) Math.round(height * sy);
+        if (deviceW <= 0 || deviceH <= 0) return;
+
+        BufferedImage sprite = sprite(width, height, deviceW, deviceH, color, facingRight);
+        g2d.setTransform(new AffineTransform());
+        g2d.drawImage(sprite,
+                (int) Math.round(x * sx + transform.getTranslateX()),
+                (int) Math.round(y * sy + transform.getTranslateY()), null);
+        g2d.setTransform(transform);
+    }
+
+    // The cached image of a fish drawn deviceW x deviceH pixels; call on the EDT
+    public static BufferedImage sprite(int width, int height, int deviceW, int deviceH,
+                                       Color color, boolean facingRight) {
+        long key = ((long) (color.getRGB() & 0xFFFFFF) << 32) | ((long) deviceW << 17) | ((long) deviceH << 1)
+                | (facingRight ? 1 : 0);
+        BufferedImage sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = renderSprite(width, height, deviceW, deviceH, color, facingRight);
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // Call on the EDT
+    public static void clearSprites() {
+        sprites.clear();
+    }
+
+    private static BufferedImage renderSprite(int width, int height, int deviceW, int deviceH,
+                                              Color color, boolean facingRight) {
+        BufferedImage image = new BufferedImage(deviceW, deviceH, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.scale(deviceW / (double) width, deviceH / (double) height);
+        drawFish(g, 0, 0, width, height, color, facingRight, false);
+        g.dispose();
+        return image;
+    }
+
+    public static void drawFish(Graphics2D g2d, int x, int y, int width, int height, Color color, boolean facingRight,
+                                boolean antialias) {
         AffineTransform originalTransform = g2d.getTransform();
         Color originalColor = g2d.getColor();
 
@@ -14,7 +82,8 @@ public class FishRenderer {
         int offsetX = (width - newW) / 2;
         int offsetY = (height - newH) / 2;
 
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                antialias ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
         g2d.translate(x + offsetX, y + offsetY);
 
         if (facingRight) {
@@ -0,0 +1,124 @@
+import java.awt.*;
+
+/**
+ * Closed-form motion of an enemy fish.
+ *
+ * After n updates a fish spawned at (x0, y0) with velocity (vx, vy) and wobble
+ * phase a is at
+ *
+ *   x(n) = x0 + n * vx
+ *   y(n) = y0 + n * vy + WOBBLE * sum(k = 0..n-1) sin(a + k * d)
+ *        = y0 + n * vy + WOBBLE * sin(n * d / 2) * sin(a + (n - 1) * d / 2) / sin(d / 2)
+ *
+ * with d = PHASE_STEP. The wobble sum never leaves [-WOBBLE_BOUND, WOBBLE_BOUND], so
+ * apart from that offset a fish moves in a straight line.
+ *
+ * Game uses this when a fish is scheduled. It works out the tick on which the fish
+ * leaves the world, and from those ticks when the phase ends, instead of checking
+ * bounds every tick. It also works out how long a fish cannot possibly reach the
+ * player, so the hit test skips the fish until then.
+ */
+public class FishTrajectory {
+
+    public static final long NEVER = Long.MAX_VALUE;
+
+    // Largest vertical offset the wobble can add up to, over any number of ticks
+    public static final double WOBBLE_BOUND = FishKernel.WOBBLE / Math.sin(FishKernel.PHASE_STEP / 2);
+
+    // Same slack as the broad-phase box in ParallelFishUpdate: int rounding of the drawn
+    // position, and the tiny drift of integrated positions from the closed form
+    private static final double SLACK = 2.0;
+
+    // Hard cap on the tick-by-tick search near a slow vertical exit
+    private static final int MAX_SCAN = 1 << 20;
+
+    // Slower fish are treated as staying forever (a year of ticks)
+    private static final double MAX_TICKS = 365.0 * 24 * 3600 * GameLoop.TICK_RATE;
+
+    private static final int MIN_X = -Game.DESPAWN_MARGIN;
+    private static final int MAX_X = Game.WORLD_WIDTH + Game.DESPAWN_MARGIN;
+    private static final int MIN_Y = -Game.DESPAWN_MARGIN;
+    private static final int MAX_Y = Game.WORLD_HEIGHT + Game.DESPAWN_MARGIN;
+
+    public static double x(double x0, double vx, long ticks) {
+        return x0 + ticks * vx;
+    }
+
+    public static double y(double y0, double vy, double phase, long ticks) {
+        return y0 + ticks * vy + wobble(phase, ticks);
+    }
+
+    // Vertical offset the wobble has added after the given number of ticks
+    public static double wobble(double phase, long ticks) {
+        double half = FishKernel.PHASE_STEP / 2;
+        return FishKernel.WOBBLE * Math.sin(ticks * half) * Math.sin(phase + (ticks - 1) * half) / Math.sin(half);
+    }
+
+    public static boolean isOutOfWorld(double x, double y) {
+        return x < MIN_X || x > MAX_X || y < MIN_Y || y > MAX_Y;
+    }
+
+    // Updates after which the fish is out of the world and despawns, at least 1; NEVER if it stays
+    public static long exitTicks(double x0, double y0, double vx, double vy, double phase) {
+        long exitX = Math.min(firstAbove(x0, vx, MAX_X), firstBelow(x0, vx, MIN_X));
+
+        // Vertically the wobble can only bring the exit forward by WOBBLE_BOUND; from the
+        // first tick where it could, search until the fish is out or surely gone sideways
+        long earliestY = Math.min(firstAbove(y0 + WOBBLE_BOUND, vy, MAX_Y), firstBelow(y0 - WOBBLE_BOUND, vy, MIN_Y));
+        long end = Math.min(exitX, earliestY == NEVER ? NEVER : earliestY + MAX_SCAN);
+        for (long n = earliestY; n < end; n++) {
+            if (isOutOfWorld(x(x0, vx, n), y(y0, vy, phase, n))) return n;
+        }
+        return exitX;
+    }
+
+    /**
+     * Ticks before the fish box can first touch a player box that moves at most
+     * playerSpeed per tick in any direction; 0 when it may touch now, NEVER when the
+     * paths cannot meet. Valid whatever the player does, so the answer only has to be
+     * recomputed when that tick comes.
+     */
+    public static long ticksUntilReach(double x, double y, double vx, double vy, Rectangle player, double playerSpeed) {
+        double w = EnemyFish.WIDTH + SLACK;
+        double h = EnemyFish.HEIGHT + SLACK;
+        double wobble = WOBBLE_BOUND + SLACK;
+
+        // Overlap on both axes needs four conditions of the form rate * k > gap to hold
+        // at once; each holds on an interval of ticks k >= 0
+        double[] rates = {
+                vx + playerSpeed, playerSpeed - vx,
+                vy + playerSpeed, playerSpeed - vy};
+        double[] gaps = {
+                player.x - x - w, x - player.x - player.width - SLACK,
+                player.y - y - h - wobble, y - player.y - player.height - wobble};
+
+        double from = 0;
+        double to = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < rates.length; i++) {
+            double rate = rates[i], gap = gaps[i];
+            if (rate > 0) {
+                from = Math.max(from, gap / rate);
+            } else if (gap >= 0) {
+                return NEVER;
+            } else if (rate < 0) {
+                to = Math.min(to, gap / rate);
+            }
+        }
+        return from > to || from >= NEVER ? NEVER : (long) from;
+    }
+
+    // Smallest n >= 1 with start + n * step > limit
+    private static long firstAbove(double start, double step, double limit) {
+        if (start + step > limit) return 1;
+        if (step <= 0 || (limit - start) / step > MAX_TICKS) return NEVER;
+        long n = Math.max(1, (long) ((limit - start) / step));
+        while (start + n * step > limit) n--;
+        while (start + n * step <= limit) n++;
+        return n;
+    }
+
+    // Smallest n >= 1 with start + n * step < limit
+    private static long firstBelow(double start, double step, double limit) {
+        return firstAbove(-start, -step, -limit);
+    }
+}
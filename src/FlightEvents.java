@@ -0,0 +1,138 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom JDK Flight Recorder events for gameplay and database calls.
+ *
+ * All events are disabled by default and cost only an isEnabled() check unless a
+ * recording turns them on, e.g. with a .jfc that enables "aquavision.*" or
+ *   jcmd <pid> JFR.start settings=profile +aquavision.DatabaseCall#enabled=true
+ * In JMC they show up under the AquaVision category next to GC and EDT activity.
+ */
+public class FlightEvents {
+
+    @Name("aquavision.Phase")
+    @Label("Phase")
+    @Category({"AquaVision", "Gameplay"})
+    @Description("One phase of a mission, from its start until it is cleared or failed")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Phase extends Event {
+        @Label("Mission")
+        int mission;
+
+        @Label("Phase")
+        int phase;
+
+        @Label("Completed")
+        boolean completed;
+    }
+
+    @Name("aquavision.Collision")
+    @Label("Collision")
+    @Category({"AquaVision", "Gameplay"})
+    @Enabled(false)
+    @StackTrace(false)
+    static class Collision extends Event {
+        @Label("Mission")
+        int mission;
+
+        @Label("Phase")
+        int phase;
+
+        @Label("Fish On Screen")
+        int fishCount;
+    }
+
+    @Name("aquavision.Spawn")
+    @Label("Spawn")
+    @Category({"AquaVision", "Gameplay"})
+    @Description("An enemy fish released by the phase pattern")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Spawn extends Event {
+        @Label("Mission")
+        int mission;
+
+        @Label("Phase")
+        int phase;
+
+        @Label("Scheduled Delay (ms)")
+        long delay;
+
+        @Label("Fish On Screen")
+        int fishCount;
+    }
+
+    @Name("aquavision.DatabaseCall")
+    @Label("Database Call")
+    @Category({"AquaVision", "Persistence"})
+    @Enabled(false)
+    static class DatabaseCall extends Event {
+        @Label("Statement")
+        String label;
+
+        @Label("Failed")
+        boolean failed;
+
+        static DatabaseCall begin(String label) {
+            DatabaseCall call = new DatabaseCall();
+            if (call.isEnabled()) {
+                call.label = label;
+                call.begin();
+            }
+            return call;
+        }
+
+        void fail() {
+            failed = true;
+        }
+
+        void finish() {
+            if (shouldCommit()) commit();
+        }
+    }
+
+    // Phase events span startPhase() to the phase's end, so they are begun and kept
+    static Phase beginPhase(int mission, int phase) {
+        Phase event = new Phase();
+        if (event.isEnabled()) {
+            event.mission = mission;
+            event.phase = phase;
+            event.begin();
+        }
+        return event;
+    }
+
+    static void endPhase(Phase event, boolean completed) {
+        if (event == null || !event.isEnabled()) return;
+        event.completed = completed;
+        if (event.shouldCommit()) event.commit();
+    }
+
+    static void collision(int mission, int phase, int fishCount) {
+        Collision event = new Collision();
+        if (event.isEnabled()) {
+            event.mission = mission;
+            event.phase = phase;
+            event.fishCount = fishCount;
+            event.commit();
+        }
+    }
+
+    static void spawn(int mission, int phase, long delay, int fishCount) {
+        Spawn event = new Spawn();
+        if (event.isEnabled()) {
+            event.mission = mission;
+            event.phase = phase;
+            event.delay = delay;
+            event.fishCount = fishCount;
+            event.commit();
+        }
+    }
+}
@@ -3,9 +3,9 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -13,7 +13,20 @@ import java.util.List;
 public class Game extends BasePanel {
     private int levelNumber;
     private Player player;
-    private Timer gameTimer;
+    private final GameLoop gameLoop = new GameLoop(this::updateGame, this::renderFrame);
+    private double renderAlpha = 1.0;   // fraction of a tick since the last update, for interpolation
+
+    // Key events from the EDT listener, applied at the start of each tick
+    private final InputQueue input = new InputQueue();
+    private final InputQueue.Consumer applyInput = this::applyInput;
+    private long tickStartNanos;
+
+    // Stamps of inputs applied since the last presented frame
+    private final long[] undisplayedInputs = new long[64];
+    private int undisplayedCount = 0;
+
+    static final LatencyRecorder INPUT_TO_SIMULATION = new LatencyRecorder("input-to-simulation", 4096);
+    static final LatencyRecorder INPUT_TO_DISPLAY = new LatencyRecorder("input-to-display (est.)", 4096);
     private boolean isGameOver = false;
     private boolean isPaused = false;
     private JDialog pauseDialog;
@@ -21,70 +34,123 @@ public class Game extends BasePanel {
     // Phase System
     private static final int TOTAL_PHASES = 15;
     private int currentPhase = 0;
-    private long phaseStartTime;
     private List<PhaseData> phaseRecords = new ArrayList<>();
+    private FlightEvents.Phase phaseEvent;
 
     // Fish spawning system
     private final List<EnemyFish> enemyFishes = new ArrayList<>();
+    // Snapshot for readers off the EDT (JMX), published once per tick
+    private volatile int liveFishCount = 0;
+    private volatile int liveMission = 0;
+    private volatile int livePhase = 0;
+    private volatile QualityGovernor.Tier liveTier = QualityGovernor.Tier.HIGH;
+    private final ParallelFishUpdate batchUpdate = new ParallelFishUpdate();
+    private final List<EnemyFish> collisionCandidates = new ArrayList<>();
+
+    // Seeds the fish wobble; -Daquavision.seed=N makes runs repeatable
+    private static final Long FIXED_SEED = Long.getLong("aquavision.seed");
+    private java.util.Random fishRandom = new java.util.Random();
     private PatternManager patternManager;
+    private BenchmarkRun benchmark;   // only in the hidden benchmark mission
+    private int shownBenchmarkTarget = 0;
+
+    // Spawns of the current phase in due order, released by the game tick. Every fish
+    // path is known when the phase starts (see FishTrajectory), and so is the tick on
+    // which the last one leaves and the phase ends.
+    private final List<ScheduledSpawn> pendingSpawns = new ArrayList<>();
+    private int nextSpawn = 0;
+    private long phaseTicks = 0;
+    private long phaseEndTick = FishTrajectory.NEVER;
+
+    private record ScheduledSpawn(SpawnInstruction instruction, long tick, double phase) {}
 
     // UI Elements
+    private JLabel titleLabel;
     private JProgressBar progressBar;
     private JLabel phaseLabel;
+    private JButton backButton;
+    private double hudScale = 0;
+    private boolean firstFramePending = false;
+
+    // Logical world; the view is scaled to the window (see RenderConfig)
+    static final int WORLD_WIDTH = RenderConfig.WORLD_SIZE;
+    static final int WORLD_HEIGHT = RenderConfig.WORLD_SIZE;
+    static final int DESPAWN_MARGIN = 100;
 
     private MissionCompletionListener completionListener;
 
+    // Per-eye layers; -Daquavision.compositor=false draws straight to the panel instead
+    private static final boolean USE_COMPOSITOR =
+            !"false".equalsIgnoreCase(System.getProperty("aquavision.compositor"));
+    private static final Color BACKGROUND = new Color(8, 8, 8);
+    private final LayerCompositor compositor = new LayerCompositor();
+    private BufferedImage sceneBuffer;   // internal-resolution frame when not compositing
+    private BufferedImage stereoBuffer;  // both eyes side by side, see drawSideBySide()
+    private static final Color FUSION_FRAME = new Color(110, 110, 110);
+
+    // Steps render quality down on slow machines (see QualityGovernor)
+    private final QualityGovernor governor = new QualityGovernor();
+    // Frame rate the governor budgets for: the paced rate, not the display's
+    private int governedRate;
+    private final CpuMeter missionCpu = new CpuMeter();
+    private long ticksRun = 0;
+    private long sceneTick = -1;          // tick the last drawn scene shows
+    private BufferedImage lastScene;
+
+    // Per-eye contrast ramp of the current session, and its level when this attempt began
+    private ContrastSchedule contrastSchedule = ContrastSchedule.neutral();
+    private int attemptStartLevel = 0;
+
     private long lastHitTime = 0;
     private static final long INVINCIBILITY_MS = 500;
+    private static final long PHASE_CUE_GAP_MS = 200;
 
 
-    public Game(int levelNumber) {
+    // Builds the panel once; GameWindow reuses it for every mission via startMission()
+    public Game() {
         super();
-        this.levelNumber = levelNumber;
-
-        DatabaseManager.incrementAttempt(levelNumber);
 
         setLayout(null);
         setFocusable(true);
-        requestFocusInWindow();
 
-        // Initialize pattern manager
-        patternManager = new PatternManager(levelNumber);
+        // Letterbox bars around the square world view
+        setBackground(BACKGROUND);
 
         // Initialize player
         player = new Player(300, 300);
 
+        // HUD bounds and fonts are set in doLayout(), scaled with the window
+
         // Add a title label
-        JLabel titleLabel = new JLabel("Mission " + levelNumber);
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 36));
+        titleLabel = new JLabel();
         titleLabel.setForeground(Color.WHITE);
-        titleLabel.setBounds(200, 20, 200, 50);
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
         add(titleLabel);
 
         // Phase progress bar (visual dots)
         progressBar = new JProgressBar(0, TOTAL_PHASES);
         progressBar.setValue(0);
-        progressBar.setBounds(200, 80, 200, 20);
         progressBar.setForeground(new Color(0, 255, 100));
         progressBar.setBackground(new Color(50, 50, 50));
         add(progressBar);
 
         // Phase label (small, for reference)
-        phaseLabel = new JLabel("Phase 0/" + TOTAL_PHASES);
-        phaseLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        phaseLabel = new JLabel();
         phaseLabel.setForeground(Color.LIGHT_GRAY);
-        phaseLabel.setBounds(520, 30, 100, 20);
         add(phaseLabel);
 
 
         // Add a back button
-        JButton backButton = new JButton("Back");
-        backButton.setBounds(20, 20, 100, 40);
-        backButton.setFont(new Font("Arial", Font.BOLD, 16));
+        backButton = new JButton("Back");
         backButton.addActionListener(e -> returnToMissionPanel());
         add(backButton);
 
+        // New colors or eye: the reused scene and the sprites show the old ones
+        LazyEyeConfig.addListener(settings -> SwingUtilities.invokeLater(() -> {
+            lastScene = null;
+            FishRenderer.clearSprites();
+        }));
+
         // Add keyboard controls
         addKeyListener(new KeyAdapter() {
             @Override
@@ -93,24 +159,31 @@ public class Game extends BasePanel {
                     showPauseMenu();
                     return;
                 }
-                player.keyPressed(e);
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    PerfOverlay.toggle();
+                    return;
+                }
+                input.offer(e.getKeyCode(), true, System.nanoTime());
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                player.keyReleased(e);
+                input.offer(e.getKeyCode(), false, System.nanoTime());
             }
         });
+    }
 
-        // Start game loop
-        gameTimer = new Timer(16, e -> {
-            updateGame();
-            repaint();
-        });
-        gameTimer.start();
-
-        // Start first phase
-        startPhase(0);
+    // Resets the panel in place for a new mission and starts it
+    public void startMission(int levelNumber, PatternManager patternManager) {
+        this.levelNumber = levelNumber;
+        this.patternManager = patternManager;
+
+        titleLabel.setText(levelNumber == PatternManager.BENCHMARK_LEVEL ? "Benchmark" : "Mission " + levelNumber);
+        firstFramePending = true;
+        // The summary printed on return covers this mission only
+        INPUT_TO_SIMULATION.reset();
+        INPUT_TO_DISPLAY.reset();
+        restartMission();
     }
 
     // Mission completion listener interface
@@ -123,9 +196,48 @@ public class Game extends BasePanel {
         this.completionListener = listener;
     }
 
+    // Live state for AquaVisionMetrics; read from JMX threads
+    GameLoop getLoop() {
+        return gameLoop;
+    }
+
+    int getFishCount() {
+        return liveFishCount;
+    }
+
+    int getMissionNumber() {
+        return liveMission;
+    }
+
+    int getPhaseNumber() {
+        return livePhase;
+    }
+
+    boolean isMissionRunning() {
+        return gameLoop.isRunning();
+    }
+
+    String getQualityTier() {
+        return liveTier.name();
+    }
+
+    // On the EDT: copies the fields the getters above report
+    private void publishLiveState() {
+        liveFishCount = enemyFishes.size();
+        liveMission = levelNumber;
+        livePhase = currentPhase + 1;
+        liveTier = renderTier();
+    }
+
+    // The benchmark measures one fixed quality, so it does not adapt
+    private QualityGovernor.Tier renderTier() {
+        return benchmark != null ? governor.getBaseline() : governor.getTier();
+    }
+
     private void startPhase(int phase) {
+        cancelSpawns();
         currentPhase = phase;
-        phaseStartTime = System.currentTimeMillis();
+        phaseEvent = FlightEvents.beginPhase(levelNumber, currentPhase + 1);
 
         PhaseData data = new PhaseData(levelNumber, currentPhase + 1);
         phaseRecords.add(data);
@@ -135,32 +247,68 @@ public class Game extends BasePanel {
         progressBar.setValue(currentPhase);
         phaseLabel.setText("Phase " + (currentPhase + 1) + "/" + TOTAL_PHASES);
 
+        // Let the phase-advance cue finish before the next phase is announced
+        SoundEffects.schedule(SoundEffects.Cue.PHASE_START, 0.8f, phase == 0 ? 0 : PHASE_CUE_GAP_MS);
+
         spawnPattern(phase);
     }
 
     private void spawnPattern(int phase) {
         FishPattern pattern = patternManager.getPattern(phase);
 
-        for (SpawnInstruction instruction : pattern.spawns) {
-            Timer spawnTimer = new Timer((int)instruction.delay, e -> {
-                enemyFishes.add(new EnemyFish(
-                        instruction.x,
-                        instruction.y,
-                        instruction.vx,
-                        instruction.vy
-                ));
-                ((Timer)e.getSource()).stop();
-            });
-            spawnTimer.setRepeats(false);
-            spawnTimer.start();
+        List<SpawnInstruction> spawns = new ArrayList<>(pattern.spawns);
+        spawns.sort((a, b) -> Long.compare(a.delay, b.delay));
+
+        // The phase lasts at least a second and ends once the last fish has left.
+        // Wobble phases are drawn now, in release order, so the paths are fixed.
+        phaseEndTick = benchmark != null ? FishTrajectory.NEVER : GameLoop.TICK_RATE + 1;
+        for (SpawnInstruction instruction : spawns) {
+            // First tick whose elapsed milliseconds reach the delay
+            long tick = (instruction.delay * GameLoop.TICK_RATE + 999) / 1000;
+            double wobblePhase = fishRandom.nextDouble() * Math.PI * 2;
+            pendingSpawns.add(new ScheduledSpawn(instruction, tick, wobblePhase));
+            phaseEndTick = Math.max(phaseEndTick, exitTick(instruction, wobblePhase, tick));
+        }
+    }
+
+    // Releases the spawns that are due on this tick
+    private void releaseDueSpawns() {
+        while (nextSpawn < pendingSpawns.size() && pendingSpawns.get(nextSpawn).tick <= phaseTicks) {
+            ScheduledSpawn spawn = pendingSpawns.get(nextSpawn++);
+            spawnFish(spawn.instruction, spawn.phase);
+            FlightEvents.spawn(levelNumber, currentPhase + 1, spawn.instruction.delay, enemyFishes.size());
         }
+        phaseTicks++;
+    }
+
+    // The fish gets its first update on the tick after phaseTicks
+    private void spawnFish(SpawnInstruction instruction, double phase) {
+        EnemyFish fish = new EnemyFish(instruction.x, instruction.y, instruction.vx, instruction.vy, phase);
+        fish.exitTick = exitTick(instruction, phase, phaseTicks);
+        fish.contactTick = phaseTicks;
+        enemyFishes.add(fish);
+    }
+
+    private static long exitTick(SpawnInstruction instruction, double phase, long bornTick) {
+        long ticks = FishTrajectory.exitTicks(instruction.x, instruction.y, instruction.vx, instruction.vy,
+                FishKernel.wrapPhase(phase));
+        return ticks == FishTrajectory.NEVER ? ticks : bornTick + ticks;
+    }
+
+    private void cancelSpawns() {
+        pendingSpawns.clear();
+        nextSpawn = 0;
+        phaseTicks = 0;
+        phaseEndTick = FishTrajectory.NEVER;
     }
 
     private void advancePhase() {
         PhaseData currentData = phaseRecords.get(phaseRecords.size() - 1);
         currentData.complete(true);
+        FlightEvents.endPhase(phaseEvent, true);
 
         DatabaseManager.updateHighestPhase(levelNumber, currentPhase);
+        SoundEffects.play(SoundEffects.Cue.PHASE_ADVANCE, 0.8f);
 
         if (currentPhase + 1 >= TOTAL_PHASES) {
             completeMission();
@@ -169,8 +317,9 @@ public class Game extends BasePanel {
         }
     }
     private void completeMission() {
-        gameTimer.stop();
+        stopLoop();
         isGameOver = true;
+        SoundEffects.schedule(SoundEffects.Cue.MISSION_COMPLETE, 1.0f, PHASE_CUE_GAP_MS);
 
         DatabaseManager.incrementCompletion(levelNumber);
         DatabaseManager.updateHighestPhase(levelNumber, TOTAL_PHASES - 1);
@@ -180,7 +329,8 @@ public class Game extends BasePanel {
         long totalTime = 0;
         for (PhaseData data : phaseRecords) totalTime += data.survivedDuration;
         double totalSeconds = totalTime / 1000.0;
-        DatabaseManager.logAttempt(levelNumber, 15, true, totalTime / 1000.0);
+        DatabaseManager.logAttempt(levelNumber, 15, true, totalTime / 1000.0, describeSchedule(),
+                governor.describeAttempt());
 
         JDialog dialog = new JDialog(
                 (JFrame) SwingUtilities.getWindowAncestor(this),
@@ -210,33 +360,7 @@ public class Game extends BasePanel {
         statsLabel.setFont(new Font("Arial", Font.PLAIN, 15));
         statsLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        // === YENİ: GELİŞME GRAFİĞİ BUTONU ===
-        JButton graphButton = new JButton("View Success Rate Graph");
-        graphButton.setFont(new Font("Arial", Font.BOLD, 15));
-        graphButton.setFocusPainted(false);
-        graphButton.setAlignmentX(Component.CENTER_ALIGNMENT);
-        graphButton.setBackground(new Color(0, 150, 0));
-        graphButton.setForeground(Color.WHITE);
-        graphButton.setOpaque(true);
-        graphButton.setBorderPainted(false);
-        graphButton.addActionListener(e -> {
-            String graph = DatabaseManager.generateAsciiSuccessRateGraph(levelNumber);
-            JTextArea graphArea = new JTextArea(graph);
-            graphArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-            graphArea.setEditable(false);
-            graphArea.setBackground(new Color(240, 240, 240));
-            graphArea.setForeground(Color.BLACK);
-
-            JScrollPane scrollPane = new JScrollPane(graphArea);
-            scrollPane.setPreferredSize(new Dimension(560, 420));
-
-            JOptionPane.showMessageDialog(
-                    dialog,
-                    scrollPane,
-                    "Mission " + levelNumber + " - Improvement Graph",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
-        });
+        JButton graphButton = graphButton(dialog, new Color(0, 150, 0));
 
         panel.add(title);
         panel.add(Box.createVerticalStrut(8));
@@ -269,9 +393,31 @@ public class Game extends BasePanel {
         dialog.setVisible(true);
     }
 
+    // Gelişme grafiği butonu: opens the success rate chart of this mission over the dialog
+    private JButton graphButton(JDialog dialog, Color background) {
+        JButton graphButton = new JButton("View Success Rate Graph");
+        graphButton.setFont(new Font("Arial", Font.BOLD, 15));
+        graphButton.setFocusPainted(false);
+        graphButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        graphButton.setBackground(background);
+        graphButton.setForeground(Color.WHITE);
+        graphButton.setOpaque(true);
+        graphButton.setBorderPainted(false);
+        graphButton.addActionListener(e -> JOptionPane.showMessageDialog(
+                dialog,
+                new SuccessRateChart(levelNumber),
+                "Mission " + levelNumber + " - Improvement Graph",
+                JOptionPane.PLAIN_MESSAGE
+        ));
+        return graphButton;
+    }
+
     private void failMission() {
-        gameTimer.stop();
+        stopLoop();
         isGameOver = true;
+        SoundEffects.play(SoundEffects.Cue.COLLISION, 1.0f);
+        FlightEvents.collision(levelNumber, currentPhase + 1, enemyFishes.size());
+        FlightEvents.endPhase(phaseEvent, false);
 
         DatabaseManager.updateHighestPhase(levelNumber, currentPhase);
 
@@ -281,18 +427,10 @@ public class Game extends BasePanel {
         int currentReached = currentPhase + 1;
         long totalTime = 0;
         for (PhaseData data : phaseRecords) totalTime += data.survivedDuration;
-        DatabaseManager.logAttempt(levelNumber, currentReached, false, totalTime / 1000.0);
-
-        int previousRecord = 0;
+        DatabaseManager.logAttempt(levelNumber, currentReached, false, totalTime / 1000.0, describeSchedule(),
+                governor.describeAttempt());
 
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT highest_phase_reached FROM mission_progress WHERE mission = ?")) {
-
-            pstmt.setInt(1, levelNumber);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) previousRecord = rs.getInt("highest_phase_reached");
-        } catch (Exception ignored) {}
+        int previousRecord = DatabaseManager.getHighestPhase(levelNumber);
 
         int improvement = currentReached - previousRecord;
         String progressMsg = improvement > 0
@@ -330,33 +468,7 @@ public class Game extends BasePanel {
         motivation1.setAlignmentX(Component.CENTER_ALIGNMENT);
         motivation2.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        // === YENİ: GELİŞME GRAFİĞİ BUTONU ===
-        JButton graphButton = new JButton("View Success Rate Graph");
-        graphButton.setFont(new Font("Arial", Font.BOLD, 15));
-        graphButton.setFocusPainted(false);
-        graphButton.setAlignmentX(Component.CENTER_ALIGNMENT);
-        graphButton.setBackground(new Color(200, 0, 0)); // Kırmızımsı, dikkat çeksin
-        graphButton.setForeground(Color.WHITE);
-        graphButton.setOpaque(true);
-        graphButton.setBorderPainted(false);
-        graphButton.addActionListener(e -> {
-            String graph = DatabaseManager.generateAsciiSuccessRateGraph(levelNumber);
-            JTextArea graphArea = new JTextArea(graph);
-            graphArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
-            graphArea.setEditable(false);
-            graphArea.setBackground(new Color(240, 240, 240));
-            graphArea.setForeground(Color.BLACK);
-
-            JScrollPane scrollPane = new JScrollPane(graphArea);
-            scrollPane.setPreferredSize(new Dimension(560, 420));
-
-            JOptionPane.showMessageDialog(
-                    dialog,
-                    scrollPane,
-                    "Mission " + levelNumber + " - Improvement Graph",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
-        });
+        JButton graphButton = graphButton(dialog, new Color(200, 0, 0)); // Kırmızımsı, dikkat çeksin
 
         panel.add(title);
         panel.add(Box.createVerticalStrut(6));
@@ -403,35 +515,99 @@ public class Game extends BasePanel {
         dialog.setVisible(true);
     }
 
+    private void finishBenchmark() {
+        stopLoop();
+        isGameOver = true;
+
+        BenchmarkRun.Result result = benchmark.getResult();
+        System.out.println("=== BENCHMARK ===\n" + result.describe());
+        DatabaseManager.saveBenchmarkResult(result.sustainableFish(), result.peakFish(), result.refreshRate(),
+                result.renderResolution(), result.tickMillis(), result.paintMillis(), result.machine());
+
+        JTextArea report = new JTextArea(result.describe());
+        report.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        report.setEditable(false);
+        JOptionPane.showMessageDialog(this, report, "Benchmark Result", JOptionPane.INFORMATION_MESSAGE);
+
+        // Not a therapy mission: the completion listener (unlocks, progress) is not told
+        returnToMissionPanel();
+    }
+
     private void restartMission() {
+        cancelSpawns();
         enemyFishes.clear();
-        player = new Player(300, 300);
+        player.reset(300, 300);
         isPaused = false;
         isGameOver = false;
         currentPhase = 0;
-        phaseRecords.clear();
-        DatabaseManager.incrementAttempt(levelNumber);
+        lastHitTime = 0;
+        input.clear();
+        undisplayedCount = 0;
+        phaseRecords = new ArrayList<>();
+
+        benchmark = null;
+        if (levelNumber == PatternManager.BENCHMARK_LEVEL) {
+            benchmark = new BenchmarkRun(GameLoop.frameRate(GameWindow.refreshRate()));
+            shownBenchmarkTarget = 0;
+        } else {
+            DatabaseManager.incrementAttempt(levelNumber);
+        }
+
+        fishRandom = new java.util.Random(FIXED_SEED != null ? FIXED_SEED : System.nanoTime());
+
+        contrastSchedule = ContrastSchedule.session();
+        attemptStartLevel = contrastSchedule.levelAt(System.nanoTime());
 
-        gameTimer.start();
         startPhase(0);
+        governedRate = GameLoop.frameRate(GameWindow.refreshRate());
+        governor.startAttempt(governedRate);
+        publishLiveState();
+        missionCpu.start();
+        startLoop();
         requestFocusInWindow();
     }
 
+    // The contrast ramp and the CPU meter only advance while the loop runs
+    private void startLoop() {
+        contrastSchedule.resume(System.nanoTime());
+        missionCpu.resume(GameLoop.isPowerSaving());
+        gameLoop.start(GameWindow.refreshRate());
+    }
+
+    private void stopLoop() {
+        gameLoop.stop();
+        contrastSchedule.pause(System.nanoTime());
+        missionCpu.pause();
+    }
+
+    private String describeSchedule() {
+        return contrastSchedule.describe(attemptStartLevel, contrastSchedule.levelAt(System.nanoTime()));
+    }
+
     private void returnToMissionPanel() {
-        if (gameTimer != null) {
-            gameTimer.stop();
-        }
-        JFrame gameFrame = (JFrame) SwingUtilities.getWindowAncestor(this);
-        if (gameFrame != null) {
-            gameFrame.dispose();
+        stopLoop();
+        cancelSpawns();
+        isGameOver = true;
+        GameWindow.close();
+
+        if (INPUT_TO_SIMULATION.getCount() > 0) {
+            System.out.println(INPUT_TO_SIMULATION.summary());
+            System.out.println(INPUT_TO_DISPLAY.summary());
         }
+        System.out.println("Mission " + levelNumber + " " + missionCpu.summary());
+    }
+
+    // The mission window went behind another window or was minimized
+    void pauseInBackground() {
+        if (gameLoop.isRunning()) showPauseMenu();
     }
 
     private void showPauseMenu() {
         if (isGameOver || isPaused) return;
 
         isPaused = true;
-        gameTimer.stop();
+        stopLoop();
+        SoundEffects.hold();
 
         pauseDialog = new JDialog(
                 (JFrame) SwingUtilities.getWindowAncestor(this),
@@ -462,10 +638,12 @@ public class Game extends BasePanel {
         resume.addActionListener(e -> resumeGame());
         restart.addActionListener(e -> {
             pauseDialog.dispose();
+            SoundEffects.cancelPending();
             restartMission();
         });
         returnToLobby.addActionListener(e -> {
             pauseDialog.dispose();
+            SoundEffects.cancelPending();
             returnToMissionPanel();
         });
         exit.addActionListener(e -> System.exit(0));
@@ -480,72 +658,353 @@ public class Game extends BasePanel {
     private void resumeGame() {
         pauseDialog.dispose();
         isPaused = false;
-        gameTimer.start();
+        governedRate = GameLoop.frameRate(GameWindow.refreshRate());
+        governor.resume(governedRate);
+        SoundEffects.release();
+        startLoop();
         requestFocusInWindow();
     }
 
     private void updateGame() {
         if (isGameOver || isPaused) return;
 
-        long elapsed = System.currentTimeMillis() - phaseStartTime;
+        tickStartNanos = System.nanoTime();
+        ticksRun++;
+        input.drain(applyInput);
+
+        releaseDueSpawns();
 
         // Update player
         player.update();
 
-        // Update enemy fish
-        Iterator<EnemyFish> it = enemyFishes.iterator();
-        boolean allFishGone = true;
+        // Update enemy fish; large swarms go through the batched kernel, split across cores
+        // when very large (same result, same order)
+        boolean batched = ParallelFishUpdate.useFor(enemyFishes.size());
 
-        while (it.hasNext()) {
-            EnemyFish fish = it.next();
-            fish.update();
+        if (batched) {
+            batchUpdate.updateAndDespawn(enemyFishes, phaseTicks);
+        } else {
+            Iterator<EnemyFish> it = enemyFishes.iterator();
+            while (it.hasNext()) {
+                EnemyFish fish = it.next();
+                fish.update();
 
-            if (fish.x < -100 || fish.x > 700 || fish.y < -100 || fish.y > 700) {
-                it.remove();
-            } else {
-                allFishGone = false;
+                if (fish.exitTick <= phaseTicks) {
+                    it.remove();
+                }
             }
         }
 
-        // Multi-component collision detection
-        java.util.List<Rectangle> playerParts = player.getBodyParts();
+        // Benchmark: keep the target number of fish on screen
+        if (benchmark != null) {
+            while (enemyFishes.size() < benchmark.getTargetFish()) {
+                spawnFish(benchmark.nextSpawn(), fishRandom.nextDouble() * Math.PI * 2);
+            }
+        }
+        publishLiveState();
 
-        for (EnemyFish fish : enemyFishes) {
-            java.util.List<Rectangle> fishParts = fish.getBodyParts();
-
-            // Check each player part against each fish part
-            for (Rectangle playerPart : playerParts) {
-                for (Rectangle fishPart : fishParts) {
-                    if (playerPart.intersects(fishPart)) {
-                        failMission();
-                        return;
-                    }
+        // Pixel-exact collision against the fish silhouettes
+        FishMask playerMask = player.getMask();
+        Rectangle playerBounds = player.getBounds();
+
+        List<EnemyFish> collisionSet = enemyFishes;
+        if (batched) {
+            collisionCandidates.clear();
+            batchUpdate.collectCandidates(enemyFishes, playerBounds, collisionCandidates);
+            collisionSet = collisionCandidates;
+        }
+
+        for (EnemyFish fish : collisionSet) {
+            // Skip fish that cannot have reached the player yet, however the player moves
+            if (fish.contactTick > phaseTicks) continue;
+            long wait = FishTrajectory.ticksUntilReach(fish.x, fish.y, fish.vx, fish.vy,
+                    playerBounds, player.getMaxSpeed());
+            if (wait > 0) {
+                fish.contactTick = wait == FishTrajectory.NEVER ? wait : phaseTicks + wait;
+                continue;
+            }
+
+            if (FishMask.overlaps(playerMask, player.getPixelX(), player.getPixelY(),
+                    fish.getMask(), (int) fish.x, (int) fish.y)) {
+                if (benchmark != null) {
+                    benchmark.collision();   // counted, the run goes on
+                    continue;
                 }
+                failMission();
+                return;
             }
         }
 
-        if (allFishGone && elapsed > 1000) {
+        if (phaseTicks >= phaseEndTick) {
             advancePhase();
         }
     }
 
 
+    // View of the world, centered in the panel (letterboxed on other aspect ratios):
+    // square, or two squares side by side in stereo
+    private Rectangle viewport() {
+        int aspect = RenderConfig.viewAspect();
+        int size = Math.min(getWidth() / aspect, getHeight());
+        return new Rectangle((getWidth() - size * aspect) / 2, (getHeight() - size) / 2, size * aspect, size);
+    }
+
+    // The square the HUD and overlay sit on: the whole view, or its left half in stereo
+    private Rectangle hudView() {
+        Rectangle view = viewport();
+        return new Rectangle(view.x, view.y, view.height, view.height);
+    }
+
+    /**
+     * Side-by-side target for stereoscopes. Each eye's half shows what that eye sees
+     * through the red/cyan glasses: the enemy fish on the amblyopic side, the player on
+     * the dominant side, with the same contrast schedule. Both halves share the
+     * background and a fusion frame, which gives the eyes a common outline to lock
+     * the two views together.
+     *
+     * Positions and sprites are resolved once for the frame (one sprite per color and
+     * facing, not a lookup per fish) and blitted into each half under a clip, so a fish
+     * crossing the world edge never shows in the other eye. Fish are always blitted
+     * here; the quality tier still sets resolution and interpolation.
+     */
+    private BufferedImage drawSideBySide(int resolution, double worldScale, double alpha,
+                                         LazyEyeConfig.Settings settings, ContrastSchedule schedule, int level) {
+        if (stereoBuffer == null || stereoBuffer.getHeight() != resolution) {
+            stereoBuffer = getGraphicsConfiguration() != null
+                    ? getGraphicsConfiguration().createCompatibleImage(2 * resolution, resolution)
+                    : new BufferedImage(2 * resolution, resolution, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = stereoBuffer.createGraphics();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, 2 * resolution, resolution);
+
+        // rightEye: the amblyopic eye is the right one
+        int amblyopicX = settings.rightEye() ? resolution : 0;
+        int dominantX = resolution - amblyopicX;
+
+        Color enemyColor = schedule.amblyopicColor(settings.enemyColor(), level);
+        int enemyW = (int) Math.round(EnemyFish.WIDTH * worldScale);
+        int enemyH = (int) Math.round(EnemyFish.HEIGHT * worldScale);
+        BufferedImage enemyRight = FishRenderer.sprite(EnemyFish.WIDTH, EnemyFish.HEIGHT, enemyW, enemyH, enemyColor, true);
+        BufferedImage enemyLeft = FishRenderer.sprite(EnemyFish.WIDTH, EnemyFish.HEIGHT, enemyW, enemyH, enemyColor, false);
+        g.setClip(amblyopicX, 0, resolution, resolution);
+        for (EnemyFish fish : enemyFishes) {
+            g.drawImage(fish.isFacingRight() ? enemyRight : enemyLeft,
+                    amblyopicX + (int) Math.round(fish.drawX(alpha) * worldScale),
+                    (int) Math.round(fish.drawY(alpha) * worldScale), null);
+        }
+
+        Color playerColor = schedule.dominantColor(settings.playerColor(), level);
+        BufferedImage playerSprite = FishRenderer.sprite(player.getWidth(), player.getHeight(),
+                (int) Math.round(player.getWidth() * worldScale), (int) Math.round(player.getHeight() * worldScale),
+                playerColor, player.isFacingRight());
+        g.setClip(dominantX, 0, resolution, resolution);
+        g.drawImage(playerSprite,
+                dominantX + (int) Math.round(player.drawX(alpha) * worldScale),
+                (int) Math.round(player.drawY(alpha) * worldScale), null);
+        g.setClip(null);
+
+        // Fusion frame, identical in both halves
+        int inset = Math.max(1, resolution / 100);
+        int thickness = Math.max(2, resolution / 200);
+        g.setColor(FUSION_FRAME);
+        for (int eyeX = 0; eyeX <= resolution; eyeX += resolution) {
+            int x0 = eyeX + inset, size = resolution - 2 * inset;
+            g.fillRect(x0, inset, size, thickness);
+            g.fillRect(x0, inset + size - thickness, size, thickness);
+            g.fillRect(x0, inset, thickness, size);
+            g.fillRect(x0 + size - thickness, inset, thickness, size);
+        }
+        g.dispose();
+        return stereoBuffer;
+    }
+
+    @Override
+    public void doLayout() {
+        Rectangle view = hudView();
+        double scale = view.width / (double) WORLD_WIDTH;
+        if (scale <= 0) return;
+
+        if (scale != hudScale) {
+            hudScale = scale;
+            titleLabel.setFont(new Font("Arial", Font.BOLD, hud(36)));
+            phaseLabel.setFont(new Font("Arial", Font.PLAIN, hud(14)));
+            backButton.setFont(new Font("Arial", Font.BOLD, hud(16)));
+        }
+        titleLabel.setBounds(view.x + hud(200), view.y + hud(20), hud(200), hud(50));
+        progressBar.setBounds(view.x + hud(200), view.y + hud(80), hud(200), hud(20));
+        phaseLabel.setBounds(view.x + hud(520), view.y + hud(30), hud(100), hud(20));
+        backButton.setBounds(view.x + hud(20), view.y + hud(20), hud(100), hud(40));
+    }
+
+    private int hud(int logical) {
+        return (int) Math.round(logical * hudScale);
+    }
+
+    private void applyInput(int keyCode, boolean pressed, long nanos) {
+        player.applyKey(keyCode, pressed);
+        INPUT_TO_SIMULATION.record(tickStartNanos - nanos);
+        if (undisplayedCount < undisplayedInputs.length) {
+            undisplayedInputs[undisplayedCount++] = nanos;
+        }
+    }
+
+    // Presents one frame from the game loop, in sync with the display where possible
+    private void renderFrame(double alpha) {
+        renderAlpha = alpha;
+        long paintStart = System.nanoTime();
+
+        BufferStrategy strategy = GameWindow.bufferStrategy();
+        if (strategy == null) {
+            paintImmediately(0, 0, getWidth(), getHeight());
+        } else {
+            // Fullscreen exclusive: draw the whole panel, HUD included, into the back buffer and flip
+            Point origin = SwingUtilities.convertPoint(this, 0, 0, getTopLevelAncestor());
+            do {
+                do {
+                    Graphics g = strategy.getDrawGraphics();
+                    try {
+                        g.translate(origin.x, origin.y);
+                        paint(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+        }
+        Toolkit.getDefaultToolkit().sync();
+        long paintNanos = System.nanoTime() - paintStart;
+
+        missionCpu.setPowerSaving(GameLoop.isPowerSaving());
+        if (benchmark == null) {
+            // Power saving switched over JMX changes the pacing mid-mission
+            int rate = GameLoop.frameRate(GameWindow.refreshRate());
+            if (rate != governedRate) {
+                governedRate = rate;
+                governor.resume(rate);
+            }
+            governor.frame(gameLoop.getFrameTickNanos() + paintNanos);
+        } else {
+            benchmark.frame(gameLoop.getFrameTickNanos(), paintNanos);
+            if (benchmark.getTargetFish() != shownBenchmarkTarget) {
+                shownBenchmarkTarget = benchmark.getTargetFish();
+                phaseLabel.setText(shownBenchmarkTarget + " fish");
+            }
+            if (benchmark.isFinished()) {
+                finishBenchmark();
+                return;
+            }
+        }
+
+        // The frame reaches the eye during the next scan-out; half a refresh on average
+        if (undisplayedCount > 0) {
+            long displayed = System.nanoTime() + 500_000_000L / GameWindow.refreshRate();
+            for (int i = 0; i < undisplayedCount; i++) {
+                INPUT_TO_DISPLAY.record(displayed - undisplayedInputs[i]);
+            }
+            undisplayedCount = 0;
+        }
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
+        // Fills the letterbox bars with the background color
         super.paintComponent(g);
 
-        // Black background (dichoptic requirement)
         Graphics2D g2d = (Graphics2D) g;
-        g2d.setColor(new Color(8, 8, 8));
-        g2d.fillRect(0, 0, getWidth(), getHeight());
+        QualityGovernor.Tier tier = renderTier();
+        int resolution = tier.resolution(RenderConfig.getInternalResolution());
+        double worldScale = resolution / (double) WORLD_WIDTH;
+        double alpha = tier.interpolate ? renderAlpha : 1.0;
+
+        // Contrast level is read once per frame; the rest is table lookups
+        ContrastSchedule schedule = contrastSchedule;
+        int level = schedule.levelAt(System.nanoTime());
+        // Settings snapshot, also read once per frame
+        LazyEyeConfig.Settings settings = LazyEyeConfig.get();
+        Color enemyColor = settings.enemyColor();
+        Color playerColor = settings.playerColor();
+
+        boolean stereo = RenderConfig.getOutputMode() == RenderConfig.OutputMode.SIDE_BY_SIDE;
+
+        BufferedImage frame;
+        if (!tier.interpolate && sceneTick == ticksRun && lastScene != null && lastScene.getHeight() == resolution
+                && lastScene.getWidth() == resolution * (stereo ? 2 : 1)) {
+            // Without interpolation frames between two ticks are identical
+            frame = lastScene;
+        } else if (stereo) {
+            frame = drawSideBySide(resolution, worldScale, alpha, settings, schedule, level);
+        } else if (USE_COMPOSITOR) {
+            compositor.resize(resolution, resolution);
+
+            // Amblyopic eye: the enemy fish to follow
+            Graphics2D amblyopic = compositor.amblyopicGraphics();
+            amblyopic.scale(worldScale, worldScale);
+            for (EnemyFish fish : enemyFishes) {
+                fish.draw(amblyopic, enemyColor, alpha, tier);
+            }
+            amblyopic.dispose();
+
+            // Dominant eye: the player fish
+            Graphics2D dominant = compositor.dominantGraphics();
+            dominant.scale(worldScale, worldScale);
+            player.draw(dominant, playerColor, alpha, tier);
+            dominant.dispose();
+
+            // Black background (dichoptic requirement) + channel-masked eye layers
+            compositor.composite(BACKGROUND,
+                    settings.amblyopicChannelMask(), schedule.amblyopicLut(level),
+                    settings.dominantChannelMask(), schedule.dominantLut(level));
+            frame = compositor.getOutput();
+        } else {
+            if (sceneBuffer == null || sceneBuffer.getWidth() != resolution) {
+                sceneBuffer = getGraphicsConfiguration() != null
+                        ? getGraphicsConfiguration().createCompatibleImage(resolution, resolution)
+                        : new BufferedImage(resolution, resolution, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D scene = sceneBuffer.createGraphics();
 
-        // Draw enemy fish
-        for (EnemyFish fish : enemyFishes) {
-            fish.draw(g);
+            // Black background (dichoptic requirement)
+            scene.setColor(BACKGROUND);
+            scene.fillRect(0, 0, resolution, resolution);
+            scene.scale(worldScale, worldScale);
+
+            // Draw enemy fish
+            Color scheduledEnemy = schedule.amblyopicColor(enemyColor, level);
+            for (EnemyFish fish : enemyFishes) {
+                fish.draw(scene, scheduledEnemy, alpha, tier);
+            }
+
+            // Draw player (on top)
+            player.draw(scene, schedule.dominantColor(playerColor, level), alpha, tier);
+            scene.dispose();
+            frame = sceneBuffer;
+        }
+        lastScene = frame;
+        sceneTick = ticksRun;
+
+        // One scaled blit to the window. The destination is in logical units, so the
+        // HiDPI transform already on g2d maps it straight onto device pixels.
+        Rectangle view = viewport();
+        AffineTransform device = g2d.getTransform();
+        boolean exact = view.width * device.getScaleX() == frame.getWidth()
+                && view.height * device.getScaleY() == frame.getHeight();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, exact
+                ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+                : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(frame, view.x, view.y, view.width, view.height, null);
+
+        if (PerfOverlay.isEnabled()) {
+            Rectangle hud = hudView();
+            PerfOverlay.draw(g2d, hud, hud.width / (double) WORLD_WIDTH, gameLoop, enemyFishes.size(),
+                    resolution, tier.name());
         }
 
-        // Draw player (on top)
-        player.draw(g);
+        if (firstFramePending && isShowing()) {
+            firstFramePending = false;
+            GameWindow.firstFramePainted(levelNumber);
+        }
     }
 }
 
@@ -578,363 +1037,10 @@ class PhaseData {
     }
 }
 
-// Pattern Manager
-class PatternManager {
-    private int missionLevel;
-
-    public PatternManager(int level) {
-        this.missionLevel = level;
-    }
-
-    public FishPattern getPattern(int phase) {
-        // Difficulty scales with mission level
-        return createPattern(missionLevel, phase);
-    }
-
-    private FishPattern createPattern(int mission, int phase) {
-        FishPattern pattern = new FishPattern();
-
-        // Mission-based difficulty scaling
-        // Mission 1: baseSpeed = 1.5 (easiest)
-        // Mission 2: baseSpeed = 1.8
-        // Mission 3: baseSpeed = 2.1, etc.
-        double baseSpeed = 1.2 + (mission * 0.3);
-
-        // Additional complexity multiplier for higher missions
-        double complexityFactor = 1.0 + (mission - 1) * 0.15;
-        int extraFish = Math.max(0, (mission - 1)); // More fish in higher missions
-
-        switch (phase) {
-            case 0: // Warm-up: Single horizontal tracking
-                pattern.addSpawn(0, -50, 300, baseSpeed * 0.9, 0, 30);
-                // Higher missions: Add challenge fish
-                if (mission >= 2) {
-                    pattern.addSpawn(800, 650, 200, -baseSpeed * 0.9, 0, 30);
-                }
-                break;
-
-            case 1: // Warm-up: Opposite direction tracking
-                pattern.addSpawn(0, 650, 300, -baseSpeed * 0.9, 0, 30);
-                if (mission >= 2) {
-                    pattern.addSpawn(800, -50, 400, baseSpeed * 0.9, 0, 30);
-                }
-                break;
-
-            case 2: // Warm-up: Vertical tracking
-                pattern.addSpawn(0, 300, -50, 0, baseSpeed * 0.9, 30);
-                if (mission >= 2) {
-                    pattern.addSpawn(700, 300, 650, 0, -baseSpeed * 0.9, 30);
-                }
-                break;
-
-            case 3: // Diagonal pursuit
-                pattern.addSpawn(0, -50, -50, baseSpeed, baseSpeed * 0.8, 30);
-                pattern.addSpawn(600, 650, 650, -baseSpeed, -baseSpeed * 0.8, 30);
-                // Mission 2+: Add crossing diagonal
-                if (mission >= 2) {
-                    pattern.addSpawn(300, 650, -50, -baseSpeed, baseSpeed * 0.8, 30);
-                }
-                if (mission >= 3) {
-                    pattern.addSpawn(300, -50, 650, baseSpeed, -baseSpeed * 0.8, 30);
-                }
-                break;
-
-            case 4: // Smooth pursuit
-                pattern.addSpawn(0, -50, 150, baseSpeed * 1.1, 0, 30);
-                pattern.addSpawn(500, -50, 450, baseSpeed * 1.1, 0, 30);
-                pattern.addSpawn(1000, 650, 300, -baseSpeed * 1.1, 0, 30);
-                // Higher missions: More waves
-                if (mission >= 3) {
-                    pattern.addSpawn(1500, -50, 300, baseSpeed * 1.1, 0, 30);
-                }
-                break;
-
-            case 5: // Saccadic training
-                pattern.addSpawn(0, -50, 100, baseSpeed * 1.2, 0, 30);
-                pattern.addSpawn(600, 650, 500, -baseSpeed * 1.2, 0, 30);
-                pattern.addSpawn(1200, 300, -50, 0, baseSpeed * 1.2, 30);
-                // Mission 2+: Faster transitions
-                if (mission >= 2) {
-                    pattern.addSpawn(1600, 300, 650, 0, -baseSpeed * 1.2, 30);
-                }
-                if (mission >= 4) {
-                    pattern.addSpawn(2000, -50, 300, baseSpeed * 1.2, 0, 30);
-                }
-                break;
-
-            case 6: // Convergence
-                pattern.addSpawn(0, -50, 200, baseSpeed * complexityFactor, baseSpeed * 0.5, 30);
-                pattern.addSpawn(0, -50, 400, baseSpeed * complexityFactor, -baseSpeed * 0.5, 30);
-                pattern.addSpawn(700, 650, 200, -baseSpeed * complexityFactor, baseSpeed * 0.5, 30);
-                pattern.addSpawn(700, 650, 400, -baseSpeed * complexityFactor, -baseSpeed * 0.5, 30);
-                // Mission 3+: Add vertical convergence
-                if (mission >= 3) {
-                    pattern.addSpawn(1400, 300, -50, 0, baseSpeed * complexityFactor, 30);
-                    pattern.addSpawn(1400, 300, 650, 0, -baseSpeed * complexityFactor, 30);
-                }
-                break;
-
-            case 7: // Divergence
-                pattern.addSpawn(0, 300, 200, 0, -baseSpeed * 0.6, 30);
-                pattern.addSpawn(0, 300, 400, 0, baseSpeed * 0.6, 30);
-                pattern.addSpawn(700, 300, 300, baseSpeed * 0.8 * complexityFactor, 0, 30);
-                pattern.addSpawn(700, 300, 300, -baseSpeed * 0.8 * complexityFactor, 0, 30);
-                if (mission >= 3) {
-                    pattern.addSpawn(1400, 150, 300, baseSpeed * 0.7, baseSpeed * 0.5, 30);
-                    pattern.addSpawn(1400, 450, 300, baseSpeed * 0.7, -baseSpeed * 0.5, 30);
-                }
-                break;
-
-            case 8: // Figure-8 simulation
-                pattern.addSpawn(0, -50, 150, baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.4, 30);
-                pattern.addSpawn(400, 650, 150, -baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.4, 30);
-                pattern.addSpawn(800, 650, 450, -baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.4, 30);
-                pattern.addSpawn(1200, -50, 450, baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.4, 30);
-                // Mission 2+: Double figure-8
-                if (mission >= 2) {
-                    pattern.addSpawn(1600, -50, 300, baseSpeed * 1.1 * complexityFactor, 0, 30);
-                    pattern.addSpawn(2000, 650, 300, -baseSpeed * 1.1 * complexityFactor, 0, 30);
-                }
-                break;
-
-            case 9: // Peripheral awareness
-                pattern.addSpawn(0, -50, 50, baseSpeed * complexityFactor, 0, 30);
-                pattern.addSpawn(0, -50, 550, baseSpeed * complexityFactor, 0, 30);
-                pattern.addSpawn(500, 650, 150, -baseSpeed * complexityFactor, 0, 30);
-                pattern.addSpawn(500, 650, 450, -baseSpeed * complexityFactor, 0, 30);
-                pattern.addSpawn(1000, 100, -50, 0, baseSpeed * complexityFactor, 30);
-                pattern.addSpawn(1000, 500, -50, 0, baseSpeed * complexityFactor, 30);
-                // Mission 3+: Add diagonal peripheral
-                if (mission >= 3) {
-                    pattern.addSpawn(1500, -50, -50, baseSpeed * complexityFactor, baseSpeed * complexityFactor, 30);
-                    pattern.addSpawn(1500, 650, 650, -baseSpeed * complexityFactor, -baseSpeed * complexityFactor, 30);
-                }
-                break;
-
-            case 10: // Vergence training
-                pattern.addSpawn(0, -50, 150, baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.3, 30);
-                pattern.addSpawn(0, -50, 450, baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.3, 30);
-                pattern.addSpawn(500, 650, 450, -baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.3, 30);
-                pattern.addSpawn(500, 650, 150, -baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.3, 30);
-                pattern.addSpawn(1000, 300, -50, 0, baseSpeed * 1.2 * complexityFactor, 30);
-                // Mission 4+: Add more crossing patterns
-                if (mission >= 4) {
-                    pattern.addSpawn(1500, 300, 650, 0, -baseSpeed * 1.2 * complexityFactor, 30);
-                    pattern.addSpawn(2000, -50, 300, baseSpeed * 1.2 * complexityFactor, 0, 30);
-                }
-                break;
-
-            case 11: // Rapid tracking
-                int fishCount = 6 + extraFish;
-                for (int i = 0; i < fishCount; i++) {
-                    int delay = i * 300;
-                    if (i % 2 == 0) {
-                        pattern.addSpawn(delay, -50, 200 + (i * 50), baseSpeed * 1.3 * complexityFactor, 0, 30);
-                    } else {
-                        pattern.addSpawn(delay, 650, 200 + (i * 50), -baseSpeed * 1.3 * complexityFactor, 0, 30);
-                    }
-                }
-                break;
-
-            case 12: // Circular pursuit
-                pattern.addSpawn(0, -50, 300, baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.5, 30);
-                pattern.addSpawn(400, 300, -50, baseSpeed * 0.5 * complexityFactor, baseSpeed * 1.1, 30);
-                pattern.addSpawn(800, 650, 300, -baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.5, 30);
-                pattern.addSpawn(1200, 300, 650, -baseSpeed * 0.5 * complexityFactor, -baseSpeed * 1.1, 30);
-                pattern.addSpawn(1600, -50, 150, baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.8, 30);
-                pattern.addSpawn(1600, 650, 450, -baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.8, 30);
-                // Mission 3+: Counter-rotating circles
-                if (mission >= 3) {
-                    pattern.addSpawn(2000, 650, 150, -baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.8, 30);
-                    pattern.addSpawn(2000, -50, 450, baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.8, 30);
-                }
-                break;
-
-            case 13: // Advanced vergence
-                pattern.addSpawn(0, -50, 100, baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.6, 30);
-                pattern.addSpawn(0, -50, 500, baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.6, 30);
-                pattern.addSpawn(500, 650, 100, -baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.6, 30);
-                pattern.addSpawn(500, 650, 500, -baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.6, 30);
-                pattern.addSpawn(1000, 150, -50, baseSpeed * 0.4 * complexityFactor, baseSpeed * 1.2, 30);
-                pattern.addSpawn(1000, 450, -50, -baseSpeed * 0.4 * complexityFactor, baseSpeed * 1.2, 30);
-                pattern.addSpawn(1500, 300, 650, 0, -baseSpeed * 1.3 * complexityFactor, 30);
-                // Mission 5: Add ultimate challenge
-                if (mission >= 5) {
-                    pattern.addSpawn(2000, -50, -50, baseSpeed * 1.3 * complexityFactor, baseSpeed * 1.3, 30);
-                    pattern.addSpawn(2000, 650, 650, -baseSpeed * 1.3 * complexityFactor, -baseSpeed * 1.3, 30);
-                }
-                break;
-
-            case 14: // FINAL BOSS
-                double finalSpeed = baseSpeed * 1.4 * complexityFactor;
-
-                // Fast horizontal pursuit
-                pattern.addSpawn(0, -50, 200, finalSpeed, 0, 30);
-                pattern.addSpawn(0, 650, 400, -finalSpeed, 0, 30);
-
-                // Diagonal crossing
-                pattern.addSpawn(500, -50, -50, finalSpeed * 0.9, finalSpeed * 0.9, 30);
-                pattern.addSpawn(500, 650, 650, -finalSpeed * 0.9, -finalSpeed * 0.9, 30);
-
-                // Converging paths
-                pattern.addSpawn(1000, -50, 300, finalSpeed * 0.95, finalSpeed * 0.3, 30);
-                pattern.addSpawn(1000, 650, 300, -finalSpeed * 0.95, finalSpeed * 0.3, 30);
-
-                // Vertical chase
-                pattern.addSpawn(1500, 300, -50, 0, finalSpeed, 30);
-                pattern.addSpawn(1800, 300, 650, 0, -finalSpeed, 30);
-
-                // Final diagonal sweep
-                pattern.addSpawn(2100, -50, 450, finalSpeed * 0.95, -finalSpeed * 0.5, 30);
-                pattern.addSpawn(2100, 650, 150, -finalSpeed * 0.95, finalSpeed * 0.5, 30);
-
-                // Mission 2+: Add chaos waves
-                if (mission >= 2) {
-                    pattern.addSpawn(2500, 300, -50, 0, finalSpeed, 30);
-                    pattern.addSpawn(2800, -50, 300, finalSpeed, 0, 30);
-                }
-
-                // Mission 3+: Add pincer finale
-                if (mission >= 3) {
-                    pattern.addSpawn(3100, -50, 100, finalSpeed, finalSpeed * 0.4, 30);
-                    pattern.addSpawn(3100, -50, 500, finalSpeed, -finalSpeed * 0.4, 30);
-                    pattern.addSpawn(3100, 650, 100, -finalSpeed, finalSpeed * 0.4, 30);
-                    pattern.addSpawn(3100, 650, 500, -finalSpeed, -finalSpeed * 0.4, 30);
-                }
-                break;
-
-            default:
-                pattern.addSpawn(0, -50, 300, baseSpeed, 0, 30);
-        }
-
-        return pattern;
-    }
-}
-
-// Fish Pattern Class
-class FishPattern {
-    List<SpawnInstruction> spawns = new ArrayList<>();
-
-    public void addSpawn(long delay, double x, double y, double vx, double vy, int size) {
-        spawns.add(new SpawnInstruction(delay, x, y, vx, vy, size));
-    }
-}
-
-// Spawn Instruction
-class SpawnInstruction {
-    long delay;
-    double x, y;
-    double vx, vy;
-    int size;
-
-    public SpawnInstruction(long delay, double x, double y, double vx, double vy, int size) {
-        this.delay = delay;
-        this.x = x;
-        this.y = y;
-        this.vx = vx;
-        this.vy = vy;
-        this.size = size;
-    }
-}
-
-// Enemy Fish class
-class EnemyFish {
-    double x, y, vx, vy, phase;
-    private int width = 100;
-    private int height = 40;
-    private boolean facingRight;
-
-
-    EnemyFish(double x, double y, double vx, double vy) {
-        this.x = x;
-        this.y = y;
-        this.vx = vx;
-        this.vy = vy;
-        this.phase = Math.random() * Math.PI * 2;
-        this.facingRight = vx > 0;
-    }
-
-
-    void update() {
-        x += vx;
-        y += vy;
-
-        y += Math.sin(phase) * 0.3;
-        phase += 0.1;
-    }
-
-    void draw(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-
-        Color enemyColor = LazyEyeConfig.getEnemyColor();
-
-
-        FishRenderer.drawFish(g2d, (int)x, (int)y, width, height, enemyColor, facingRight);
-    }
-
-    public java.util.List<Rectangle> getBodyParts() {
-        java.util.List<Rectangle> parts = new java.util.ArrayList<>();
-
-        // Account for the 0.85 scale in FishRenderer
-        double scale = 0.85;
-        int scaledW = (int)(width * scale);
-        int scaledH = (int)(height * scale);
-        int offsetX = (width - scaledW) / 2;
-        int offsetY = (height - scaledH) / 2;
-
-        // Shrink hitboxes by 15% for more forgiving collision
-        double shrink = 0.85;
-
-        if (facingRight) {
-            // Head (front right)
-            int headX = (int) (x + offsetX + scaledW * 0.62);     // biraz daha sağa (öne doğru)
-            int headY = (int) (y + offsetY + scaledH * 0.20);     // daha merkezli, yukarı-aşağı geniş
-            int headW = (int) (scaledW * 0.32);                  // daha geniş kafa (shrink kaldirdim ki erken çarpsın)
-            int headH = (int) (scaledH * 0.60);                  // daha uzun kafa
-            parts.add(new Rectangle(headX, headY, headW, headH));
-
-            // Body middle
-            int bodyX = (int) (x + offsetX + scaledW * 0.35);
-            int bodyY = (int) (y + offsetY + scaledH * 0.25);
-            int bodyW = (int) (scaledW * 0.28 * shrink);
-            int bodyH = (int) (scaledH * 0.50 * shrink);
-            parts.add(new Rectangle(bodyX, bodyY, bodyW, bodyH));
-
-            // Tail base (back left)
-            int tailX = (int) (x + offsetX + scaledW * 0.16);
-            int tailY = (int) (y + offsetY + scaledH * 0.38);
-            int tailW = (int) (scaledW * 0.22 * shrink);
-            int tailH = (int) (scaledH * 0.24 * shrink);
-            parts.add(new Rectangle(tailX, tailY, tailW, tailH));
-        } else {
-            // Head (front left)
-            int headX = (int) (x + offsetX + scaledW * 0.00);     // tam sola dayalı, daha öne!
-            int headY = (int) (y + offsetY + scaledH * 0.20);     // dikeyde daha merkezli
-            int headW = (int) (scaledW * 0.32);                  // daha geniş kafa
-            int headH = (int) (scaledH * 0.60);                  // daha uzun kafa
-            parts.add(new Rectangle(headX, headY, headW, headH));
-
-            // Body middle
-            int bodyX = (int) (x + offsetX + scaledW * 0.26);
-            int bodyY = (int) (y + offsetY + scaledH * 0.25);
-            int bodyW = (int) (scaledW * 0.28 * shrink);
-            int bodyH = (int) (scaledH * 0.50 * shrink);
-            parts.add(new Rectangle(bodyX, bodyY, bodyW, bodyH));
-
-            // Tail base (back right)
-            int tailX = (int) (x + offsetX + scaledW * 0.52);
-            int tailY = (int) (y + offsetY + scaledH * 0.38);
-            int tailW = (int) (scaledW * 0.22 * shrink);
-            int tailH = (int) (scaledH * 0.24 * shrink);
-            parts.add(new Rectangle(tailX, tailY, tailW, tailH));
-        }
-
-        return parts;
-    }
-}
 // Player class
 class Player {
     private double x, y;
+    private double prevX, prevY;   // position before the last update
     private double velocityX = 0;
     private double velocityY = 0;
     private double speed = 5.0;
@@ -944,42 +1050,57 @@ class Player {
     private int height = 40;
     private boolean facingRight = true;
 
-    private boolean upPressed = false;
-    private boolean downPressed = false;
-    private boolean leftPressed = false;
-    private boolean rightPressed = false;
+    private static final int UP = 1, DOWN = 2, LEFT = 4, RIGHT = 8;
+
+    // Directions held down, and directions pressed since the last update. The latch
+    // makes a tap that is pressed and released between two ticks still count once.
+    private int held = 0;
+    private int tapped = 0;
 
 
     public Player(int startX, int startY) {
-        this.x = startX;
-        this.y = startY;
+        reset(startX, startY);
     }
 
-
-    public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) upPressed = true;
-        if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) downPressed = true;
-        if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) leftPressed = true;
-        if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) rightPressed = true;
+    public void reset(int startX, int startY) {
+        x = prevX = startX;
+        y = prevY = startY;
+        velocityX = 0;
+        velocityY = 0;
+        facingRight = true;
+        held = tapped = 0;
     }
 
-    public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) upPressed = false;
-        if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) downPressed = false;
-        if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) leftPressed = false;
-        if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) rightPressed = false;
+
+    public void applyKey(int key, boolean pressed) {
+        int direction = 0;
+        if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) direction = UP;
+        if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) direction = DOWN;
+        if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) direction = LEFT;
+        if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) direction = RIGHT;
+
+        if (pressed) {
+            held |= direction;
+            tapped |= direction;
+        } else {
+            held &= ~direction;
+        }
     }
 
     public void update() {
-        if (upPressed) velocityY -= acceleration;
-        if (downPressed) velocityY += acceleration;
-        if (leftPressed) {
+        prevX = x;
+        prevY = y;
+
+        int active = held | tapped;
+        tapped = 0;
+
+        if ((active & UP) != 0) velocityY -= acceleration;
+        if ((active & DOWN) != 0) velocityY += acceleration;
+        if ((active & LEFT) != 0) {
             velocityX -= acceleration;
             facingRight = false;
         }
-        if (rightPressed) {
+        if ((active & RIGHT) != 0) {
             velocityX += acceleration;
             facingRight = true;
         }
@@ -997,76 +1118,62 @@ class Player {
         y += velocityY;
 
         if (x < 0) { x = 0; velocityX = 0; }
-        if (x > 600 - width) { x = 600 - width; velocityX = 0; }
+        if (x > Game.WORLD_WIDTH - width) { x = Game.WORLD_WIDTH - width; velocityX = 0; }
         if (y < 0) { y = 0; velocityY = 0; }
-        if (y > 600 - height) { y = 600 - height; velocityY = 0; }
+        if (y > Game.WORLD_HEIGHT - height) { y = Game.WORLD_HEIGHT - height; velocityY = 0; }
     }
 
-    public void draw(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
+    public double drawX(double alpha) {
+        return prevX + (x - prevX) * alpha;
+    }
 
-        Color playerColor = LazyEyeConfig.getPlayerColor();
+    public double drawY(double alpha) {
+        return prevY + (y - prevY) * alpha;
+    }
+
+    public boolean isFacingRight() {
+        return facingRight;
+    }
 
+    public int getWidth() {
+        return width;
+    }
 
-        FishRenderer.drawFish(g2d, (int)x, (int)y, width, height, playerColor, facingRight);
+    public int getHeight() {
+        return height;
     }
-    public java.util.List<Rectangle> getBodyParts() {
-        java.util.List<Rectangle> parts = new java.util.ArrayList<>();
-
-        // Account for the 0.85 scale in FishRenderer
-        double scale = 0.85;
-        int scaledW = (int)(width * scale);
-        int scaledH = (int)(height * scale);
-        int offsetX = (width - scaledW) / 2;
-        int offsetY = (height - scaledH) / 2;
-
-        // Shrink hitboxes by 15% for more forgiving collision
-        double shrink = 0.85;
-
-        if (facingRight) {
-            // Head (front right)
-            int headX = (int) (x + offsetX + scaledW * 0.62);     // biraz daha sağa (öne doğru)
-            int headY = (int) (y + offsetY + scaledH * 0.20);     // daha merkezli, yukarı-aşağı geniş
-            int headW = (int) (scaledW * 0.32);                  // daha geniş kafa (shrink kaldirdim ki erken çarpsın)
-            int headH = (int) (scaledH * 0.60);                  // daha uzun kafa
-            parts.add(new Rectangle(headX, headY, headW, headH));
-
-            // Body middle
-            int bodyX = (int) (x + offsetX + scaledW * 0.35);
-            int bodyY = (int) (y + offsetY + scaledH * 0.25);
-            int bodyW = (int) (scaledW * 0.28 * shrink);
-            int bodyH = (int) (scaledH * 0.50 * shrink);
-            parts.add(new Rectangle(bodyX, bodyY, bodyW, bodyH));
-
-            // Tail base (back left)
-            int tailX = (int) (x + offsetX + scaledW * 0.16);
-            int tailY = (int) (y + offsetY + scaledH * 0.38);
-            int tailW = (int) (scaledW * 0.22 * shrink);
-            int tailH = (int) (scaledH * 0.24 * shrink);
-            parts.add(new Rectangle(tailX, tailY, tailW, tailH));
+
+    public void draw(Graphics g, Color playerColor, double alpha, QualityGovernor.Tier tier) {
+        Graphics2D g2d = (Graphics2D) g;
+
+        double drawX = drawX(alpha);
+        double drawY = drawY(alpha);
+        if (tier.sprites) {
+            FishRenderer.drawSprite(g2d, drawX, drawY, width, height, playerColor, facingRight);
         } else {
-            // Head (front left)
-            int headX = (int) (x + offsetX + scaledW * 0.00);     // tam sola dayalı, daha öne!
-            int headY = (int) (y + offsetY + scaledH * 0.20);     // dikeyde daha merkezli
-            int headW = (int) (scaledW * 0.32);                  // daha geniş kafa
-            int headH = (int) (scaledH * 0.60);                  // daha uzun kafa
-            parts.add(new Rectangle(headX, headY, headW, headH));
-
-            // Body middle
-            int bodyX = (int) (x + offsetX + scaledW * 0.26);
-            int bodyY = (int) (y + offsetY + scaledH * 0.25);
-            int bodyW = (int) (scaledW * 0.28 * shrink);
-            int bodyH = (int) (scaledH * 0.50 * shrink);
-            parts.add(new Rectangle(bodyX, bodyY, bodyW, bodyH));
-
-            // Tail base (back right)
-            int tailX = (int) (x + offsetX + scaledW * 0.52);
-            int tailY = (int) (y + offsetY + scaledH * 0.38);
-            int tailW = (int) (scaledW * 0.22 * shrink);
-            int tailH = (int) (scaledH * 0.24 * shrink);
-            parts.add(new Rectangle(tailX, tailY, tailW, tailH));
+            FishRenderer.drawFish(g2d, (int) drawX, (int) drawY, width, height, playerColor, facingRight, tier.antialias);
         }
+    }
+    // Most the player can move in one tick, in any direction
+    public double getMaxSpeed() {
+        return speed;
+    }
+
+    // Box around the silhouette, with slack for the int rounding of its position
+    public Rectangle getBounds() {
+        return new Rectangle((int) Math.floor(x) - 2, (int) Math.floor(y) - 2, width + 4, height + 4);
+    }
+
+    public FishMask getMask() {
+        return FishMask.of(width, height, facingRight);
+    }
+
+    // Where drawFish puts the fish at the current tick
+    public int getPixelX() {
+        return (int) x;
+    }
 
-        return parts;
+    public int getPixelY() {
+        return (int) y;
     }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Fixed-step game loop paced to the display.
+ *
+ * The simulation always advances in TICK_RATE steps per second (fish speeds are
+ * tuned per tick), while frames are produced at the display refresh rate. Each
+ * frame runs the due ticks and the render on the EDT, so game code still owns
+ * Swing state; the render gets the fraction of a tick elapsed since the last one
+ * and interpolates positions with it.
+ *
+ * While stopped (paused, a dialog open, no mission) the thread parks until start()
+ * and uses no CPU. Between frames it parks until the next deadline. In power saving
+ * mode, on by default, frames are paced no faster than the tick rate, and a frame
+ * with no tick to show is not rendered, so on displays faster than the tick rate it
+ * overrides refresh rate matching; frameRate() is the rate frames are actually paced
+ * at. -Daquavision.powerSaving=false renders every refresh.
+ */
+public class GameLoop implements Runnable {
+
+    public static final int TICK_RATE = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICK_RATE;
+
+    // After a stall (debugger, window drag) drop time instead of running a burst of ticks
+    private static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+    private static final long IDLE_POLL_NANOS = 250_000_000L;
+
+    private final Runnable tick;
+    private final DoubleConsumer render;
+
+    // Loops between start() and stop(), for background work that gives way to play
+    private static final AtomicInteger runningLoops = new AtomicInteger();
+
+    private static volatile boolean powerSaving =
+            !"false".equalsIgnoreCase(System.getProperty("aquavision.powerSaving"));
+
+    private Thread thread;
+    private volatile boolean running = false;
+    private volatile int generation = 0;
+    private volatile long frameNanos = 1_000_000_000L / RenderConfig.DEFAULT_REFRESH_RATE;
+
+    // Only touched inside the frame task; invokeAndWait orders it between threads
+    private long accumulator;
+
+    private final LatencyRecorder tickTimes = new LatencyRecorder("tick", 1024);
+    private long frameTickNanos = 0;
+    private volatile double framesPerSecond = 0;
+    private int framesInWindow = 0;
+    private long windowStart = 0;
+
+    public GameLoop(Runnable tick, DoubleConsumer render) {
+        this.tick = tick;
+        this.render = render;
+    }
+
+    // Starts (or restarts) pacing at the given refresh rate, from a fresh clock
+    public synchronized void start(int refreshRate) {
+        frameNanos = 1_000_000_000L / Math.max(1, refreshRate);
+        generation++;
+        if (!running) runningLoops.incrementAndGet();
+        running = true;
+
+        if (thread == null) {
+            thread = new Thread(this, "game-loop");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY + 1);
+            thread.start();
+        }
+        LockSupport.unpark(thread);
+    }
+
+    public synchronized void stop() {
+        if (running) runningLoops.decrementAndGet();
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // True while any mission (or the benchmark) is being played
+    public static boolean isAnyRunning() {
+        return runningLoops.get() > 0;
+    }
+
+    // Parks the calling background thread for as long as any mission is being played
+    public static void awaitIdle() {
+        while (isAnyRunning()) {
+            LockSupport.parkNanos(IDLE_POLL_NANOS);
+        }
+    }
+
+    public static boolean isPowerSaving() {
+        return powerSaving;
+    }
+
+    public static void setPowerSaving(boolean on) {
+        powerSaving = on;
+    }
+
+    // Frames per second the loop presents on a display of the given refresh rate
+    public static int frameRate(int refreshRate) {
+        int rate = Math.max(1, refreshRate);
+        return powerSaving ? Math.min(rate, TICK_RATE) : rate;
+    }
+
+    // Frames presented per second over the last full second, 0 while stopped
+    public double getFramesPerSecond() {
+        return running ? framesPerSecond : 0;
+    }
+
+    // Time spent in each simulation tick
+    public LatencyRecorder getTickTimes() {
+        return tickTimes;
+    }
+
+    // Time spent in the ticks of the frame being rendered; call from the render callback
+    public long getFrameTickNanos() {
+        return frameTickNanos;
+    }
+
+    @Override
+    public void run() {
+        int seen = -1;
+        long last = 0;
+        long nextFrame = 0;
+
+        while (true) {
+            if (!running) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            long now = System.nanoTime();
+            int gen = generation;
+            if (gen != seen) {
+                seen = gen;
+                last = now;
+                nextFrame = now;
+                accumulator = 0;
+            }
+            accumulator += Math.min(now - last, MAX_CATCH_UP_NANOS);
+            last = now;
+
+            try {
+                SwingUtilities.invokeAndWait(() -> frame(gen));
+            } catch (InvocationTargetException e) {
+                System.err.println("Game frame failed: " + e.getCause());
+                e.getCause().printStackTrace();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            // Deadlines follow the frame start, so a present that already waited for
+            // vsync leaves nothing to sleep and the loop locks onto the display
+            nextFrame += powerSaving ? Math.max(frameNanos, TICK_NANOS) : frameNanos;
+            long wait = nextFrame - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            } else if (wait < -frameNanos) {
+                nextFrame = System.nanoTime();
+            }
+        }
+    }
+
+    // On the EDT
+    private void frame(int gen) {
+        frameTickNanos = 0;
+        int ticks = 0;
+        while (accumulator >= TICK_NANOS) {
+            if (!running || generation != gen) return;
+            long start = System.nanoTime();
+            tick.run();
+            long spent = System.nanoTime() - start;
+            tickTimes.record(spent);
+            frameTickNanos += spent;
+            accumulator -= TICK_NANOS;
+            ticks++;
+        }
+        // Nothing moved since the last frame
+        if (ticks == 0 && powerSaving) return;
+
+        if (running && generation == gen) {
+            render.accept(accumulator / (double) TICK_NANOS);
+            countFrame();
+        }
+    }
+
+    private void countFrame() {
+        long now = System.nanoTime();
+        if (framesInWindow == 0 && now - windowStart > 2_000_000_000L) {
+            windowStart = now;   // first frame after a pause starts a new window
+        }
+        framesInWindow++;
+        if (now - windowStart >= 1_000_000_000L) {
+            framesPerSecond = framesInWindow * 1e9 / (now - windowStart);
+            framesInWindow = 0;
+            windowStart = now;
+        }
+    }
+}
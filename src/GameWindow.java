@@ -0,0 +1,179 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The single undecorated window every mission runs in.
+ *
+ * The frame and its Game panel are built once and only hidden between missions;
+ * Game.startMission() resets the panel in place. While the mission screen is open,
+ * prewarm() builds the frame's native peer, paints the panel once off-screen and
+ * prepares the PatternManager of the mission the player is most likely to pick next,
+ * so a click only has to show the window.
+ *
+ * The window is shown in the mode selected in RenderConfig. In fullscreen exclusive
+ * mode the frame owns a flip BufferStrategy that Game presents through; when the
+ * device cannot go exclusive, a borderless window covering the screen is used.
+ */
+public class GameWindow {
+
+    private static JFrame frame;
+    private static volatile Game game;   // also read by JMX threads
+    private static CompletableFuture<PatternManager> prepared;
+    private static int preparedLevel;
+    private static long clickNanos;
+
+    private static GraphicsDevice exclusiveDevice;
+    private static BufferStrategy strategy;
+    private static int refreshRate = RenderConfig.DEFAULT_REFRESH_RATE;
+
+    // Call on the EDT
+    public static void prewarm(int levelNumber) {
+        ensureCreated();
+        if (prepared == null || preparedLevel != levelNumber) {
+            preparedLevel = levelNumber;
+            prepared = CompletableFuture.supplyAsync(() -> new PatternManager(levelNumber));
+        }
+    }
+
+    // Call on the EDT
+    public static void open(int levelNumber, Game.MissionCompletionListener listener) {
+        clickNanos = System.nanoTime();
+        ensureCreated();
+
+        PatternManager patterns = prepared != null && preparedLevel == levelNumber
+                ? prepared.join()
+                : new PatternManager(levelNumber);
+        prepared = null;
+
+        frame.setTitle("Mission " + levelNumber);
+        showInWindowMode();
+        game.setCompletionListener(listener);
+        game.startMission(levelNumber, patterns);
+        game.requestFocusInWindow();
+    }
+
+    public static void close() {
+        if (frame == null) return;
+
+        if (strategy != null) {
+            strategy.dispose();
+            strategy = null;
+        }
+        if (exclusiveDevice != null) {
+            // Also restores the desktop display mode
+            exclusiveDevice.setFullScreenWindow(null);
+            exclusiveDevice = null;
+            frame.setIgnoreRepaint(false);
+        }
+        frame.setVisible(false);
+    }
+
+    // The mission panel, or null before the first mission is prepared
+    static Game currentGame() {
+        return game;
+    }
+
+    // Refresh rate of the display the mission window is on, for the game loop
+    static int refreshRate() {
+        return refreshRate;
+    }
+
+    // Flip chain in fullscreen exclusive mode, null when Swing paints the window
+    static BufferStrategy bufferStrategy() {
+        return strategy;
+    }
+
+    // Called by Game on the first paint after startMission()
+    static void firstFramePainted(int levelNumber) {
+        if (clickNanos == 0) return;
+        long latencyMs = (System.nanoTime() - clickNanos) / 1_000_000;
+        clickNanos = 0;
+        System.out.println("Mission " + levelNumber + " click-to-first-frame: " + latencyMs + " ms");
+    }
+
+    private static void showInWindowMode() {
+        GraphicsConfiguration gc = frame.getGraphicsConfiguration();
+        GraphicsDevice device = gc.getDevice();
+        refreshRate = RenderConfig.refreshRate(device.getDisplayMode());
+
+        RenderConfig.WindowMode mode = RenderConfig.getWindowMode();
+        if (mode == RenderConfig.WindowMode.EXCLUSIVE && enterExclusive(device)) return;
+        if (mode == RenderConfig.WindowMode.WINDOWED) {
+            int size = RenderConfig.windowSize(gc);
+            frame.setSize(size * RenderConfig.viewAspect(), size);
+            frame.setLocationRelativeTo(null);
+        } else {
+            // Borderless, also the fallback when exclusive mode was refused
+            frame.setBounds(gc.getBounds());
+        }
+        frame.setVisible(true);
+    }
+
+    private static boolean enterExclusive(GraphicsDevice device) {
+        if (!device.isFullScreenSupported()) {
+            System.err.println("Fullscreen exclusive mode is not supported here, using a borderless window");
+            return false;
+        }
+        try {
+            // Frames are presented by Game through the flip chain, not by OS repaints
+            frame.setIgnoreRepaint(true);
+            device.setFullScreenWindow(frame);
+            exclusiveDevice = device;
+
+            DisplayMode mode = RenderConfig.chooseDisplayMode(device);
+            if (mode != null && device.isDisplayChangeSupported() && !mode.equals(device.getDisplayMode())) {
+                device.setDisplayMode(mode);
+            }
+            refreshRate = RenderConfig.refreshRate(device.getDisplayMode());
+
+            frame.createBufferStrategy(2);
+            strategy = frame.getBufferStrategy();
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Could not enter fullscreen exclusive mode: " + e.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    private static void ensureCreated() {
+        if (frame != null) return;
+
+        frame = new JFrame();
+        int size = RenderConfig.windowSize(frame.getGraphicsConfiguration());
+        frame.setSize(size * RenderConfig.viewAspect(), size);
+        frame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+        frame.setUndecorated(true);
+
+        game = new Game();
+        frame.add(game);
+
+        // Another window or app in front: in power saving mode, pause, so the loop parks
+        // instead of running unseen
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowDeactivated(WindowEvent e) {
+                if (GameLoop.isPowerSaving()) SwingUtilities.invokeLater(game::pauseInBackground);
+            }
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                if (GameLoop.isPowerSaving()) SwingUtilities.invokeLater(game::pauseInBackground);
+            }
+        });
+
+        // Create the native peer and run one off-screen paint so fonts, glyph caches
+        // and Java2D loops are ready before the window is first shown
+        frame.addNotify();
+        frame.validate();
+        BufferedImage warmup = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics g = warmup.getGraphics();
+        game.paint(g);
+        g.dispose();
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps attempt_history from growing without bound.
+ *
+ * Attempts from before the last DAYS days are folded into attempt_rollup, one row
+ * per day and mission with the attempts, completions, best phase, total time and
+ * the order of successes and failures, and then deleted. The session count and the
+ * success rate graph read both tables, so they show the same numbers before and
+ * after. The attempt_daily view gives per-day totals over both.
+ *
+ * Work runs on a background thread at the lowest priority, BATCH attempts per
+ * transaction, and waits while a mission is being played. Every VACUUM_EVERY
+ * batches, and at the end, freed pages go back to the file system through
+ * incremental vacuum. It runs shortly after startup and then once a day.
+ *
+ * -Daquavision.historyDays=365 sets the window; 0 keeps every attempt.
+ */
+public class HistoryRetention {
+
+    private static final int DAYS = Integer.getInteger("aquavision.historyDays", 365);
+
+    private static final int BATCH = 200;
+    private static final int VACUUM_EVERY = 10;
+    private static final int VACUUM_PAGES = 512;
+    private static final long PAUSE_NANOS = 20_000_000L;
+    private static final long FIRST_DELAY_MINUTES = 1;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "history-retention");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    public static void schedule() {
+        if (DAYS <= 0) return;
+        scheduler.scheduleWithFixedDelay(HistoryRetention::compact,
+                FIRST_DELAY_MINUTES, TimeUnit.DAYS.toMinutes(1), TimeUnit.MINUTES);
+    }
+
+    // Compacts everything outside the window; returns how many attempts were rolled up
+    public static synchronized int compact() {
+        if (DAYS <= 0) return 0;
+
+        long start = System.nanoTime();
+        int total = 0;
+        int batches = 0;
+        while (true) {
+            GameLoop.awaitIdle();
+            int done = DatabaseManager.compactHistory(DAYS, BATCH);
+            if (done <= 0) break;
+            total += done;
+            if (++batches % VACUUM_EVERY == 0) {
+                DatabaseManager.incrementalVacuum(VACUUM_PAGES);
+            }
+            // Leave gaps for the game's own writes
+            LockSupport.parkNanos(PAUSE_NANOS);
+        }
+
+        if (total > 0) {
+            GameLoop.awaitIdle();
+            DatabaseManager.incrementalVacuum(VACUUM_PAGES);
+            System.out.println(String.format(Locale.ROOT, "Attempt history: rolled up %d attempts older than %d days (%.1f s)",
+                    total, DAYS, (System.nanoTime() - start) / 1e9));
+        }
+        return total;
+    }
+}
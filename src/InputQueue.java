@@ -0,0 +1,55 @@
+/**
+ * Key events on their way from the key listener to the game tick.
+ *
+ * A ring in primitive arrays: offer() stamps each press or release with
+ * System.nanoTime(), and the tick drains everything queued so far at its start. No
+ * allocation per event, so presses and releases that fall between two ticks are all
+ * seen, in order, with the time they happened.
+ *
+ * Both sides run on the EDT (key events, and the ticks GameLoop runs through
+ * invokeAndWait), so the ring needs no synchronization and has none. For the same
+ * reason, while the loop runs, at most a tick's worth of key events queue up, far below
+ * CAPACITY; a full ring would drop the new event.
+ */
+public class InputQueue {
+
+    public interface Consumer {
+        void accept(int keyCode, boolean pressed, long nanos);
+    }
+
+    private static final int CAPACITY = 256;   // power of two
+    private static final int MASK = CAPACITY - 1;
+
+    private final int[] keyCodes = new int[CAPACITY];
+    private final boolean[] presses = new boolean[CAPACITY];
+    private final long[] stamps = new long[CAPACITY];
+
+    private long head = 0;   // next slot to read
+    private long tail = 0;   // next slot to write
+
+    public void offer(int keyCode, boolean pressed, long nanos) {
+        if (tail - head == CAPACITY) return;
+        int i = (int) (tail & MASK);
+        keyCodes[i] = keyCode;
+        presses[i] = pressed;
+        stamps[i] = nanos;
+        tail++;
+    }
+
+    // Returns the number of events handed to the consumer
+    public int drain(Consumer consumer) {
+        long h = head;
+        long t = tail;
+        for (long n = h; n < t; n++) {
+            int i = (int) (n & MASK);
+            consumer.accept(keyCodes[i], presses[i], stamps[i]);
+        }
+        head = t;
+        return (int) (t - h);
+    }
+
+    // Discards everything not yet drained
+    public void clear() {
+        head = tail;
+    }
+}
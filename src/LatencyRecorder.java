@@ -0,0 +1,61 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Keeps the most recent latency samples of one kind and reports percentiles.
+ *
+ * Samples go into a fixed ring, so recording never allocates; percentiles are
+ * computed on a sorted copy when asked for.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private final long[] samples;
+    private long count = 0;
+    private long max = 0;
+
+    public LatencyRecorder(String name, int capacity) {
+        this.name = name;
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        if (nanos < 0) return;
+        samples[(int) (count % samples.length)] = nanos;
+        count++;
+        max = Math.max(max, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized void reset() {
+        count = 0;
+        max = 0;
+    }
+
+    // p in [0, 100], over the retained samples
+    public double percentileMillis(double p) {
+        long[] sorted = snapshot();
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    public synchronized double maxMillis() {
+        return max / 1e6;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT, "%s: n=%d p50=%.2f ms p95=%.2f ms p99=%.2f ms max=%.2f ms",
+                name, getCount(), percentileMillis(50), percentileMillis(95), percentileMillis(99), maxMillis());
+    }
+
+    private synchronized long[] snapshot() {
+        int size = (int) Math.min(count, samples.length);
+        long[] copy = Arrays.copyOf(samples, size);
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,111 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.stream.IntStream;
+
+/**
+ * Per-eye render layers for the dichoptic view.
+ *
+ * The amblyopic-eye scene and the dominant-eye scene are drawn into two separate
+ * int rasters. composite() then masks each layer with the color channels its eye
+ * sees through the glasses (red or cyan), maps it through that eye's contrast lookup
+ * table (see ContrastSchedule) and adds both over the background, working directly
+ * on the pixel arrays in parallel row bands. Layers are cleared in the same pass,
+ * so they are ready for the next frame.
+ */
+public class LayerCompositor {
+
+    public static final int RED_MASK = 0xFF0000;
+    public static final int CYAN_MASK = 0x00FFFF;
+
+    // Below this many pixels a single thread is faster than splitting the work
+    private static final int PARALLEL_MIN_PIXELS = 256 * 256;
+    private static final int BANDS = Math.max(1, Runtime.getRuntime().availableProcessors() * 2);
+
+    private BufferedImage amblyopicLayer;
+    private BufferedImage dominantLayer;
+    private BufferedImage output;
+    private int[] amblyopic;
+    private int[] dominant;
+    private int[] out;
+    private int width;
+    private int height;
+
+    public void resize(int width, int height) {
+        if (width == this.width && height == this.height && output != null) return;
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+
+        amblyopicLayer = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+        dominantLayer = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+        output = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+        amblyopic = ((DataBufferInt) amblyopicLayer.getRaster().getDataBuffer()).getData();
+        dominant = ((DataBufferInt) dominantLayer.getRaster().getDataBuffer()).getData();
+        out = ((DataBufferInt) output.getRaster().getDataBuffer()).getData();
+    }
+
+    // Content for the amblyopic eye (the fish to follow)
+    public Graphics2D amblyopicGraphics() {
+        return amblyopicLayer.createGraphics();
+    }
+
+    // Content for the dominant eye (the player fish)
+    public Graphics2D dominantGraphics() {
+        return dominantLayer.createGraphics();
+    }
+
+    public BufferedImage getOutput() {
+        return output;
+    }
+
+    /**
+     * out = background + amblyopicLut[amblyopic & amblyopicMask]
+     *                  + dominantLut[dominant & dominantMask]      (per channel, saturating)
+     */
+    public void composite(Color background, int amblyopicMask, int[] amblyopicLut,
+                          int dominantMask, int[] dominantLut) {
+        int bg = background.getRGB() & 0xFFFFFF;
+        int rowsPerBand = (height + BANDS - 1) / BANDS;
+
+        if (width * height < PARALLEL_MIN_PIXELS) {
+            compositeRows(0, height, bg, amblyopicMask, amblyopicLut, dominantMask, dominantLut);
+            return;
+        }
+        IntStream.range(0, BANDS).parallel().forEach(band -> {
+            int from = band * rowsPerBand;
+            int to = Math.min(height, from + rowsPerBand);
+            if (from < to) {
+                compositeRows(from, to, bg, amblyopicMask, amblyopicLut, dominantMask, dominantLut);
+            }
+        });
+    }
+
+    private void compositeRows(int fromRow, int toRow, int bg,
+                               int amblyopicMask, int[] ambLut,
+                               int dominantMask, int[] domLut) {
+        int[] amb = amblyopic;
+        int[] dom = dominant;
+        int[] dst = out;
+        int bgR = (bg >> 16) & 0xFF, bgG = (bg >> 8) & 0xFF, bgB = bg & 0xFF;
+
+        for (int i = fromRow * width, end = toRow * width; i < end; i++) {
+            int a = amb[i];
+            int d = dom[i];
+
+            if ((a | d) == 0) {
+                dst[i] = bg;
+                continue;
+            }
+            a &= amblyopicMask;
+            d &= dominantMask;
+
+            int r = bgR + ambLut[(a >> 16) & 0xFF] + domLut[(d >> 16) & 0xFF];
+            int g = bgG + ambLut[(a >> 8) & 0xFF] + domLut[(d >> 8) & 0xFF];
+            int b = bgB + ambLut[a & 0xFF] + domLut[d & 0xFF];
+
+            dst[i] = (Math.min(r, 255) << 16) | (Math.min(g, 255) << 8) | Math.min(b, 255);
+            amb[i] = 0;
+            dom[i] = 0;
+        }
+    }
+}
@@ -1,35 +1,155 @@
 import java.awt.Color;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Eye and color settings, as one immutable Settings snapshot.
+ *
+ * Changes build a new snapshot and publish it atomically, so a reader (the game's
+ * paint, on any frame) always sees a consistent set of values. Renderers read get()
+ * once per frame. Listeners hear about every published change, on the thread that
+ * made it, and can drop caches built from the old values.
+ *
+ * Changes made with persist = true are written to the database on a background
+ * thread, SAVE_DELAY_MS after the last of a burst of changes; only the snapshot of
+ * the latest such change is written, never a later preview made with persist =
+ * false. Pending writes are flushed when the JVM exits, after any write in progress.
+ */
 public class LazyEyeConfig {
 
-    private static boolean isRightEyeSelected = false;
+    // basePlayerColor / baseEnemyColor: the colors as the user chose them
+    public record Settings(boolean rightEye, Color basePlayerColor, Color baseEnemyColor) {
+
+        // OYUNDA KULLANILAN renkler
+        public Color playerColor() {
+            return rightEye ? baseEnemyColor : basePlayerColor;
+        }
+
+        public Color enemyColor() {
+            return rightEye ? basePlayerColor : baseEnemyColor;
+        }
+
+        // Red/cyan glasses: red lens on the left eye, cyan lens on the right eye
+        public int amblyopicChannelMask() {
+            return rightEye ? LayerCompositor.CYAN_MASK : LayerCompositor.RED_MASK;
+        }
+
+        public int dominantChannelMask() {
+            return rightEye ? LayerCompositor.RED_MASK : LayerCompositor.CYAN_MASK;
+        }
+
+        public Settings withRightEye(boolean selected) {
+            return new Settings(selected, basePlayerColor, baseEnemyColor);
+        }
+
+        public Settings withBasePlayerColor(Color c) {
+            return new Settings(rightEye, c, baseEnemyColor);
+        }
 
-    // Kullanıcının seçtiği GERÇEK renkler
-    private static Color basePlayerColor = new Color(0, 100, 255);
-    private static Color baseEnemyColor  = new Color(200, 0, 0);
+        public Settings withBaseEnemyColor(Color c) {
+            return new Settings(rightEye, basePlayerColor, c);
+        }
+    }
+
+    private static final long SAVE_DELAY_MS = 400;
+
+    private static final AtomicReference<Settings> current = new AtomicReference<>(
+            new Settings(false, new Color(0, 100, 255), new Color(200, 0, 0)));
+    private static final List<Consumer<Settings>> listeners = new CopyOnWriteArrayList<>();
+
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "settings-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private static ScheduledFuture<?> pendingSave;   // guarded by LazyEyeConfig.class
+    private static Settings pendingSettings;         // guarded by LazyEyeConfig.class
+    private static Settings saved;                   // guarded by writeLock
+    private static final Object writeLock = new Object();
 
-    public static void setRightEye(boolean selected) {
-        isRightEyeSelected = selected;
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LazyEyeConfig::flush, "settings-flush"));
     }
 
-    // UI renk seçtiğinde burası çağrılır
-    public static void setPlayerColor(Color c) {
-        basePlayerColor = c;
+    public static Settings get() {
+        return current.get();
     }
 
-    public static void setEnemyColor(Color c) {
-        baseEnemyColor = c;
+    // Applies the change to the latest snapshot and publishes the result
+    public static Settings update(UnaryOperator<Settings> change, boolean persist) {
+        Settings previous, next;
+        do {
+            previous = current.get();
+            next = change.apply(previous);
+        } while (!current.compareAndSet(previous, next));
+
+        if (!next.equals(previous)) {
+            for (Consumer<Settings> listener : listeners) listener.accept(next);
+        }
+        if (persist) scheduleSave(next);
+        return next;
     }
 
-    // OYUNDA KULLANILAN renkler
-    public static Color getPlayerColor() {
-        return isRightEyeSelected ? baseEnemyColor : basePlayerColor;
+    // Settings read from the database; already persisted
+    static void loaded(Settings settings) {
+        synchronized (writeLock) {
+            saved = settings;
+        }
+        update(s -> settings, false);
     }
 
-    public static Color getEnemyColor() {
-        return isRightEyeSelected ? basePlayerColor : baseEnemyColor;
+    public static void addListener(Consumer<Settings> listener) {
+        listeners.add(listener);
     }
 
+    // Writes a pending change now instead of after the delay, or waits for the write in
+    // progress; called at exit
+    public static void flush() {
+        save();
+    }
+
+    private static synchronized void scheduleSave(Settings settings) {
+        pendingSettings = settings;
+        if (pendingSave != null) pendingSave.cancel(false);
+        pendingSave = writer.schedule(LazyEyeConfig::save, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // The snapshot waiting to be written, or null; whoever takes it writes it
+    private static synchronized Settings takePending() {
+        Settings settings = pendingSettings;
+        pendingSettings = null;
+        if (pendingSave != null) pendingSave.cancel(false);
+        pendingSave = null;
+        return settings;
+    }
+
+    private static void save() {
+        synchronized (writeLock) {
+            Settings settings = takePending();
+            if (settings == null || settings.equals(saved)) return;
+            DatabaseManager.saveUserSettings(settings.rightEye(), settings.basePlayerColor(), settings.baseEnemyColor());
+            saved = settings;
+        }
+    }
+
+    // Shortcuts that read the current snapshot; code that reads several values should
+    // take get() once instead
     public static boolean isRightEyeSelected() {
-        return isRightEyeSelected;
+        return get().rightEye();
+    }
+
+    public static Color getPlayerColor() {
+        return get().playerColor();
+    }
+
+    public static Color getEnemyColor() {
+        return get().enemyColor();
     }
 }
@@ -1,43 +1,30 @@
 import javax.swing.*;
-import java.awt.*;
-import java.net.URL;
-import java.awt.Taskbar;
 
 public class Main {
 
     public static void main(String[] args) {
-
-        JFrame frame = new JFrame();
-        frame.setSize(600, 600);
-
-        URL url = Main.class.getResource("/appLogo.png");
-
-        if (url == null) {
-            System.out.println("Error: Image not found! Check path and Resources Root.");
-        } else {
-            System.out.println("Success: Found image at " + url);
-            Image image = Toolkit.getDefaultToolkit().getImage(url);
-
-            frame.setIconImage(image);
-
-            // macOS Dock icon
-            try {
-                if (Taskbar.isTaskbarSupported()) {
-                    Taskbar.getTaskbar().setIconImage(image);
-                }
-            } catch (Exception e) {
-                System.out.println("Could not set dock/taskbar icon: " + e.getMessage());
-            }
+        StartupTimeline.configure(args);
+        boolean benchmark = java.util.Arrays.asList(args).contains("--benchmark");
+        StartupTimeline.mark("main");
+
+        // Audio, database and images load in the background while the menu is built
+        StartupPipeline.start();
+
+        SwingUtilities.invokeLater(() -> StartupTimeline.time("menu frame", () -> {
+            JFrame frame = new JFrame();
+            frame.setSize(600, 600);
+            StartupPipeline.applyIcon(frame);
+
+            StartPanel panel = new StartPanel();
+            frame.add(panel);
+            frame.setUndecorated(true);
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+        }));
+
+        // Hardware qualification: straight into the hidden benchmark mission
+        if (benchmark) {
+            StartupPipeline.afterSettings(() -> GameWindow.open(PatternManager.BENCHMARK_LEVEL, null));
         }
-
-        SoundManager.init();
-        DatabaseManager.initialize();
-        DatabaseManager.loadUserSettings();
-
-        StartPanel panel = new StartPanel();
-        frame.add(panel);
-        frame.setUndecorated(true);
-        frame.setLocationRelativeTo(null);
-        frame.setVisible(true);
     }
 }
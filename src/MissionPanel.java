@@ -1,11 +1,6 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.ImageFilter;
-import java.net.URL;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,6 +9,7 @@ public class MissionPanel extends BasePanel {
 
     private static final int BUTTON_SIZE = 60;
     private static final int FONT_SIZE = 20;
+    private static final String BACKGROUND = "/MissionBackground.png";
 
     private final int[][] levelPositions = {
             {170, 520}, // Level 1
@@ -41,19 +37,21 @@ public class MissionPanel extends BasePanel {
         loadUnlockedLevelsFromDB();
 
         initButtons();
+
+        // Most likely next pick: the newest unlocked mission (after this panel is shown)
+        SwingUtilities.invokeLater(() -> GameWindow.prewarm(maxUnlockedLevel));
     }
 
     private void loadImages() {
         System.out.println("--- Loading Images ---");
 
-        // Background
-        backgroundImage = safeLoadImage("/MissionBackground.png");
+        // Background (pre-scaled to the panel size on paint)
+        backgroundImage = AssetCache.get(BACKGROUND, 600, 600);
 
         // Active icon
-        Image imgActive = safeLoadImage("/level_active.png");
+        Image imgActive = AssetCache.get("/level_active.png", BUTTON_SIZE, BUTTON_SIZE);
         if (imgActive != null) {
-            Image scaled = imgActive.getScaledInstance(BUTTON_SIZE, BUTTON_SIZE, Image.SCALE_SMOOTH);
-            shellIcon = new ImageIcon(scaled);
+            shellIcon = new ImageIcon(imgActive);
             System.out.println("SUCCESS: level_active.png loaded.");
         } else {
             System.err.println("ERROR: level_active.png not found!");
@@ -61,10 +59,9 @@ public class MissionPanel extends BasePanel {
         }
 
         // Locked icon
-        Image imgLocked = safeLoadImage("/level_locked.png");
+        Image imgLocked = AssetCache.get("/level_locked.png", BUTTON_SIZE, BUTTON_SIZE);
         if (imgLocked != null) {
-            Image scaled = imgLocked.getScaledInstance(BUTTON_SIZE, BUTTON_SIZE, Image.SCALE_SMOOTH);
-            lockedIcon = new ImageIcon(scaled);
+            lockedIcon = new ImageIcon(imgLocked);
             System.out.println("SUCCESS: level_locked.png loaded.");
         } else {
             if (shellIcon != null) {
@@ -76,20 +73,6 @@ public class MissionPanel extends BasePanel {
         }
     }
 
-    private Image safeLoadImage(String resourcePath) {
-        try {
-            URL url = getClass().getResource(resourcePath);
-            if (url != null) {
-                return new ImageIcon(url).getImage();
-            }
-            System.err.println("Resource not found: " + resourcePath);
-            return null;
-        } catch (Exception e) {
-            System.err.println("Error loading resource: " + resourcePath + " - " + e.getMessage());
-            return null;
-        }
-    }
-
     private ImageIcon createGrayIcon(ImageIcon icon) {
         Image img = icon.getImage();
         ImageFilter filter = new GrayFilter(true, 50);
@@ -103,10 +86,9 @@ public class MissionPanel extends BasePanel {
         JButton returnButton = new JButton();
         returnButton.setBounds(10, 10, 50, 50);
 
-        Image img = safeLoadImage("/return.png");
+        Image img = AssetCache.get("/return.png", 100, 50);
         if (img != null) {
-            Image scaled = img.getScaledInstance(100, 50, Image.SCALE_SMOOTH);
-            returnButton.setIcon(new ImageIcon(scaled));
+            returnButton.setIcon(new ImageIcon(img));
         }
 
         returnButton.setContentAreaFilled(false);
@@ -178,16 +160,8 @@ public class MissionPanel extends BasePanel {
     private void openGameFrame(int levelNum) {
         System.out.println("Opening game frame for Mission " + levelNum);
 
-        JFrame gameFrame = new JFrame("Mission " + levelNum);
-        gameFrame.setSize(600, 600);
-        gameFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        gameFrame.setLocationRelativeTo(null);
-        gameFrame.setUndecorated(true);
-
-        Game gamePanel = new Game(levelNum);
-
-        // Set completion listener to receive mission results
-        gamePanel.setCompletionListener(new Game.MissionCompletionListener() {
+        // Completion listener receives mission results
+        GameWindow.open(levelNum, new Game.MissionCompletionListener() {
             @Override
             public void onMissionCompleted(int level, List<PhaseData> phaseData) {
                 System.out.println("✅ Mission " + level + " COMPLETED!");
@@ -207,7 +181,7 @@ public class MissionPanel extends BasePanel {
                     unlockLevel(level + 1);
                 }
 
-                gameFrame.dispose();
+                GameWindow.prewarm(Math.min(level + 1, maxUnlockedLevel));
             }
 
             @Override
@@ -220,15 +194,13 @@ public class MissionPanel extends BasePanel {
                 }
 
                 System.out.println("=======================================");
-                gameFrame.dispose();
+
+                // Most likely next pick is a retry
+                GameWindow.prewarm(level);
             }
         });
 
-        gameFrame.add(gamePanel);
-        gameFrame.setVisible(true);
-        gamePanel.requestFocusInWindow();
-
-        System.out.println("Game frame created and shown!");
+        System.out.println("Game frame shown!");
     }
 
     private void unlockLevel(int level) {
@@ -260,7 +232,15 @@ public class MissionPanel extends BasePanel {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         if (backgroundImage != null) {
-            g.drawImage(backgroundImage, 0, 0, this.getWidth(), this.getHeight(), this);
+            if (backgroundImage.getWidth(null) != getWidth() || backgroundImage.getHeight(null) != getHeight()) {
+                Image resized = AssetCache.get(BACKGROUND, getWidth(), getHeight());
+                if (resized != null) {
+                    // Only the current size is kept, not one copy per step of a resize
+                    AssetCache.release(BACKGROUND, backgroundImage.getWidth(null), backgroundImage.getHeight(null));
+                    backgroundImage = resized;
+                }
+            }
+            g.drawImage(backgroundImage, 0, 0, this);
         } else {
             g.setColor(new Color(100, 200, 255));
             g.fillRect(0, 0, getWidth(), getHeight());
@@ -271,25 +251,15 @@ public class MissionPanel extends BasePanel {
 
         maxUnlockedLevel = 1; // Varsayılan: sadece Mission 1 açık
 
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(
-                     "SELECT MAX(mission) AS last_completed FROM mission_progress WHERE successful_completions > 0")) {
-
-            if (rs.next() && rs.getInt("last_completed") > 0) {
-                int lastCompleted = rs.getInt("last_completed");
-                maxUnlockedLevel = lastCompleted + 1; // Tamamlanan son mission'dan bir sonraki açık olsun
-
-                if (maxUnlockedLevel > 5) {
-                    maxUnlockedLevel = 5;
-                }
+        int lastCompleted = DatabaseManager.getLastCompletedMission();
+        if (lastCompleted > 0) {
+            maxUnlockedLevel = lastCompleted + 1; // Tamamlanan son mission'dan bir sonraki açık olsun
 
-                System.out.println("Son tamamlanan mission: " + lastCompleted + " → Açık olacak: " + maxUnlockedLevel);
+            if (maxUnlockedLevel > 5) {
+                maxUnlockedLevel = 5;
             }
 
-        } catch (SQLException e) {
-            System.err.println("Database okuma hatası: " + e.getMessage());
-            e.printStackTrace();
+            System.out.println("Son tamamlanan mission: " + lastCompleted + " → Açık olacak: " + maxUnlockedLevel);
         }
     }
 }
\ No newline at end of file
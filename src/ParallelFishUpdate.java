@@ -0,0 +1,124 @@
+import java.awt.*;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Batched path of Game.updateGame() for large fish counts.
+ *
+ * The fish list is split into fixed chunks. Each chunk copies its fish into
+ * primitive arrays, runs FishKernel over them (SIMD when the vector kernel is
+ * available), copies the results back and writes one flag per fish (exit tick reached,
+ * or collision candidate); nothing else is shared between chunks. Above THRESHOLD
+ * the chunks run on the common fork-join pool, below it inline on the caller. The
+ * flags are merged in list order on the calling thread, so removals and the order
+ * in which candidates are hit-tested are exactly those of the sequential loop.
+ *
+ * Small missions keep the plain per-object loop in Game, which has lower latency
+ * than either.
+ */
+class ParallelFishUpdate {
+
+    // -Daquavision.parallelUpdateThreshold=N; fish counts at or above N go parallel
+    static final int THRESHOLD = Math.max(1, Integer.getInteger("aquavision.parallelUpdateThreshold", 1500));
+
+    // Below this the copy into arrays costs more than the vector kernel saves
+    static final int BATCH_MIN = 64;
+
+    private static final int CHUNK = 512;
+
+    private final FishKernel kernel = FishKernel.get();
+
+    // Structure-of-arrays copy of the swarm, indexed like the fish list
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] phase = new double[0];
+    private boolean[] flags = new boolean[0];
+
+    // Whether the batched path pays off for this many fish
+    static boolean useFor(int fishCount) {
+        return fishCount >= THRESHOLD || (fishCount >= BATCH_MIN && FishKernel.get().isVectorized());
+    }
+
+    // Moves every fish and removes the ones whose exit tick has come, keeping list order
+    void updateAndDespawn(List<EnemyFish> fishes, long tick) {
+        int n = fishes.size();
+        ensureCapacity(n);
+        boolean[] leftWorld = flags;
+
+        forEachChunk(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                EnemyFish fish = fishes.get(i);
+                x[i] = fish.x;
+                y[i] = fish.y;
+                vx[i] = fish.vx;
+                vy[i] = fish.vy;
+                phase[i] = fish.phase;
+            }
+            kernel.integrate(x, y, vx, vy, phase, from, to);
+            for (int i = from; i < to; i++) {
+                EnemyFish fish = fishes.get(i);
+                fish.moveTo(x[i], y[i], phase[i]);
+                leftWorld[i] = fish.exitTick <= tick;
+            }
+        });
+
+        // Merge: compact the survivors in place, in their original order
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (!leftWorld[i]) fishes.set(kept++, fishes.get(i));
+        }
+        fishes.subList(kept, n).clear();
+    }
+
+    // Fish whose bounds touch the area, in list order; only these need the part-by-part test
+    void collectCandidates(List<EnemyFish> fishes, Rectangle area, List<EnemyFish> out) {
+        int n = fishes.size();
+        ensureCapacity(n);
+
+        // The fish box, with two pixels of slack for the int rounding of its position
+        double minX = area.x - EnemyFish.WIDTH - 2;
+        double maxX = area.x + area.width + 2;
+        double minY = area.y - EnemyFish.HEIGHT - 2;
+        double maxY = area.y + area.height + 2;
+        boolean[] touching = flags;
+
+        forEachChunk(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                EnemyFish fish = fishes.get(i);
+                x[i] = fish.x;
+                y[i] = fish.y;
+            }
+            kernel.touching(x, y, from, to, minX, minY, maxX, maxY, touching);
+        });
+
+        for (int i = 0; i < n; i++) {
+            if (touching[i]) out.add(fishes.get(i));
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (x.length >= n) return;
+        int capacity = Math.max(n, x.length * 2);
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        phase = new double[capacity];
+        flags = new boolean[capacity];
+    }
+
+    private interface ChunkTask {
+        void run(int from, int to);
+    }
+
+    private static void forEachChunk(int n, ChunkTask task) {
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        if (n < THRESHOLD) {
+            for (int c = 0; c < chunks; c++) task.run(c * CHUNK, Math.min(n, (c + 1) * CHUNK));
+            return;
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> task.run(c * CHUNK, Math.min(n, (c + 1) * CHUNK)));
+    }
+}
@@ -0,0 +1,260 @@
+import java.util.Random;
+
+class PatternManager {
+    // Hidden mission used by BenchmarkRun, not listed on the mission screen
+    static final int BENCHMARK_LEVEL = 0;
+
+    private final int missionLevel;
+    private final FishPattern[] patterns = new FishPattern[15];
+
+    public PatternManager(int level) {
+        this.missionLevel = level;
+
+        // Built up front so a prepared mission does no pattern work once it starts
+        for (int phase = 0; phase < patterns.length; phase++) {
+            patterns[phase] = createPattern(missionLevel, phase);
+        }
+    }
+
+    public FishPattern getPattern(int phase) {
+        // Difficulty scales with mission level
+        if (phase >= 0 && phase < patterns.length) return patterns[phase];
+        return createPattern(missionLevel, phase);
+    }
+
+    // A fish entering from a random edge, crossing the world
+    static SpawnInstruction benchmarkSpawn(Random random) {
+        double speed = 1.5 + random.nextDouble() * 2.0;
+        double drift = (random.nextDouble() - 0.5) * speed;
+        double along = 50 + random.nextDouble() * (Game.WORLD_WIDTH - 100);
+
+        switch (random.nextInt(4)) {
+            case 0:  return new SpawnInstruction(0, -50, along, speed, drift, 30);
+            case 1:  return new SpawnInstruction(0, Game.WORLD_WIDTH + 50, along, -speed, drift, 30);
+            case 2:  return new SpawnInstruction(0, along, -50, drift, speed, 30);
+            default: return new SpawnInstruction(0, along, Game.WORLD_HEIGHT + 50, drift, -speed, 30);
+        }
+    }
+
+    private FishPattern createPattern(int mission, int phase) {
+        FishPattern pattern = new FishPattern();
+
+        // Benchmark fish are added by BenchmarkRun, not by a pattern
+        if (mission == BENCHMARK_LEVEL) return pattern;
+
+        // Mission-based difficulty scaling
+        // Mission 1: baseSpeed = 1.5 (easiest)
+        // Mission 2: baseSpeed = 1.8
+        // Mission 3: baseSpeed = 2.1, etc.
+        double baseSpeed = 1.2 + (mission * 0.3);
+
+        // Additional complexity multiplier for higher missions
+        double complexityFactor = 1.0 + (mission - 1) * 0.15;
+        int extraFish = Math.max(0, (mission - 1)); // More fish in higher missions
+
+        switch (phase) {
+            case 0: // Warm-up: Single horizontal tracking
+                pattern.addSpawn(0, -50, 300, baseSpeed * 0.9, 0, 30);
+                // Higher missions: Add challenge fish
+                if (mission >= 2) {
+                    pattern.addSpawn(800, 650, 200, -baseSpeed * 0.9, 0, 30);
+                }
+                break;
+
+            case 1: // Warm-up: Opposite direction tracking
+                pattern.addSpawn(0, 650, 300, -baseSpeed * 0.9, 0, 30);
+                if (mission >= 2) {
+                    pattern.addSpawn(800, -50, 400, baseSpeed * 0.9, 0, 30);
+                }
+                break;
+
+            case 2: // Warm-up: Vertical tracking
+                pattern.addSpawn(0, 300, -50, 0, baseSpeed * 0.9, 30);
+                if (mission >= 2) {
+                    pattern.addSpawn(700, 300, 650, 0, -baseSpeed * 0.9, 30);
+                }
+                break;
+
+            case 3: // Diagonal pursuit
+                pattern.addSpawn(0, -50, -50, baseSpeed, baseSpeed * 0.8, 30);
+                pattern.addSpawn(600, 650, 650, -baseSpeed, -baseSpeed * 0.8, 30);
+                // Mission 2+: Add crossing diagonal
+                if (mission >= 2) {
+                    pattern.addSpawn(300, 650, -50, -baseSpeed, baseSpeed * 0.8, 30);
+                }
+                if (mission >= 3) {
+                    pattern.addSpawn(300, -50, 650, baseSpeed, -baseSpeed * 0.8, 30);
+                }
+                break;
+
+            case 4: // Smooth pursuit
+                pattern.addSpawn(0, -50, 150, baseSpeed * 1.1, 0, 30);
+                pattern.addSpawn(500, -50, 450, baseSpeed * 1.1, 0, 30);
+                pattern.addSpawn(1000, 650, 300, -baseSpeed * 1.1, 0, 30);
+                // Higher missions: More waves
+                if (mission >= 3) {
+                    pattern.addSpawn(1500, -50, 300, baseSpeed * 1.1, 0, 30);
+                }
+                break;
+
+            case 5: // Saccadic training
+                pattern.addSpawn(0, -50, 100, baseSpeed * 1.2, 0, 30);
+                pattern.addSpawn(600, 650, 500, -baseSpeed * 1.2, 0, 30);
+                pattern.addSpawn(1200, 300, -50, 0, baseSpeed * 1.2, 30);
+                // Mission 2+: Faster transitions
+                if (mission >= 2) {
+                    pattern.addSpawn(1600, 300, 650, 0, -baseSpeed * 1.2, 30);
+                }
+                if (mission >= 4) {
+                    pattern.addSpawn(2000, -50, 300, baseSpeed * 1.2, 0, 30);
+                }
+                break;
+
+            case 6: // Convergence
+                pattern.addSpawn(0, -50, 200, baseSpeed * complexityFactor, baseSpeed * 0.5, 30);
+                pattern.addSpawn(0, -50, 400, baseSpeed * complexityFactor, -baseSpeed * 0.5, 30);
+                pattern.addSpawn(700, 650, 200, -baseSpeed * complexityFactor, baseSpeed * 0.5, 30);
+                pattern.addSpawn(700, 650, 400, -baseSpeed * complexityFactor, -baseSpeed * 0.5, 30);
+                // Mission 3+: Add vertical convergence
+                if (mission >= 3) {
+                    pattern.addSpawn(1400, 300, -50, 0, baseSpeed * complexityFactor, 30);
+                    pattern.addSpawn(1400, 300, 650, 0, -baseSpeed * complexityFactor, 30);
+                }
+                break;
+
+            case 7: // Divergence
+                pattern.addSpawn(0, 300, 200, 0, -baseSpeed * 0.6, 30);
+                pattern.addSpawn(0, 300, 400, 0, baseSpeed * 0.6, 30);
+                pattern.addSpawn(700, 300, 300, baseSpeed * 0.8 * complexityFactor, 0, 30);
+                pattern.addSpawn(700, 300, 300, -baseSpeed * 0.8 * complexityFactor, 0, 30);
+                if (mission >= 3) {
+                    pattern.addSpawn(1400, 150, 300, baseSpeed * 0.7, baseSpeed * 0.5, 30);
+                    pattern.addSpawn(1400, 450, 300, baseSpeed * 0.7, -baseSpeed * 0.5, 30);
+                }
+                break;
+
+            case 8: // Figure-8 simulation
+                pattern.addSpawn(0, -50, 150, baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.4, 30);
+                pattern.addSpawn(400, 650, 150, -baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.4, 30);
+                pattern.addSpawn(800, 650, 450, -baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.4, 30);
+                pattern.addSpawn(1200, -50, 450, baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.4, 30);
+                // Mission 2+: Double figure-8
+                if (mission >= 2) {
+                    pattern.addSpawn(1600, -50, 300, baseSpeed * 1.1 * complexityFactor, 0, 30);
+                    pattern.addSpawn(2000, 650, 300, -baseSpeed * 1.1 * complexityFactor, 0, 30);
+                }
+                break;
+
+            case 9: // Peripheral awareness
+                pattern.addSpawn(0, -50, 50, baseSpeed * complexityFactor, 0, 30);
+                pattern.addSpawn(0, -50, 550, baseSpeed * complexityFactor, 0, 30);
+                pattern.addSpawn(500, 650, 150, -baseSpeed * complexityFactor, 0, 30);
+                pattern.addSpawn(500, 650, 450, -baseSpeed * complexityFactor, 0, 30);
+                pattern.addSpawn(1000, 100, -50, 0, baseSpeed * complexityFactor, 30);
+                pattern.addSpawn(1000, 500, -50, 0, baseSpeed * complexityFactor, 30);
+                // Mission 3+: Add diagonal peripheral
+                if (mission >= 3) {
+                    pattern.addSpawn(1500, -50, -50, baseSpeed * complexityFactor, baseSpeed * complexityFactor, 30);
+                    pattern.addSpawn(1500, 650, 650, -baseSpeed * complexityFactor, -baseSpeed * complexityFactor, 30);
+                }
+                break;
+
+            case 10: // Vergence training
+                pattern.addSpawn(0, -50, 150, baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.3, 30);
+                pattern.addSpawn(0, -50, 450, baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.3, 30);
+                pattern.addSpawn(500, 650, 450, -baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.3, 30);
+                pattern.addSpawn(500, 650, 150, -baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.3, 30);
+                pattern.addSpawn(1000, 300, -50, 0, baseSpeed * 1.2 * complexityFactor, 30);
+                // Mission 4+: Add more crossing patterns
+                if (mission >= 4) {
+                    pattern.addSpawn(1500, 300, 650, 0, -baseSpeed * 1.2 * complexityFactor, 30);
+                    pattern.addSpawn(2000, -50, 300, baseSpeed * 1.2 * complexityFactor, 0, 30);
+                }
+                break;
+
+            case 11: // Rapid tracking
+                int fishCount = 6 + extraFish;
+                for (int i = 0; i < fishCount; i++) {
+                    int delay = i * 300;
+                    if (i % 2 == 0) {
+                        pattern.addSpawn(delay, -50, 200 + (i * 50), baseSpeed * 1.3 * complexityFactor, 0, 30);
+                    } else {
+                        pattern.addSpawn(delay, 650, 200 + (i * 50), -baseSpeed * 1.3 * complexityFactor, 0, 30);
+                    }
+                }
+                break;
+
+            case 12: // Circular pursuit
+                pattern.addSpawn(0, -50, 300, baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.5, 30);
+                pattern.addSpawn(400, 300, -50, baseSpeed * 0.5 * complexityFactor, baseSpeed * 1.1, 30);
+                pattern.addSpawn(800, 650, 300, -baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.5, 30);
+                pattern.addSpawn(1200, 300, 650, -baseSpeed * 0.5 * complexityFactor, -baseSpeed * 1.1, 30);
+                pattern.addSpawn(1600, -50, 150, baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.8, 30);
+                pattern.addSpawn(1600, 650, 450, -baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.8, 30);
+                // Mission 3+: Counter-rotating circles
+                if (mission >= 3) {
+                    pattern.addSpawn(2000, 650, 150, -baseSpeed * 1.1 * complexityFactor, baseSpeed * 0.8, 30);
+                    pattern.addSpawn(2000, -50, 450, baseSpeed * 1.1 * complexityFactor, -baseSpeed * 0.8, 30);
+                }
+                break;
+
+            case 13: // Advanced vergence
+                pattern.addSpawn(0, -50, 100, baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.6, 30);
+                pattern.addSpawn(0, -50, 500, baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.6, 30);
+                pattern.addSpawn(500, 650, 100, -baseSpeed * 1.2 * complexityFactor, baseSpeed * 0.6, 30);
+                pattern.addSpawn(500, 650, 500, -baseSpeed * 1.2 * complexityFactor, -baseSpeed * 0.6, 30);
+                pattern.addSpawn(1000, 150, -50, baseSpeed * 0.4 * complexityFactor, baseSpeed * 1.2, 30);
+                pattern.addSpawn(1000, 450, -50, -baseSpeed * 0.4 * complexityFactor, baseSpeed * 1.2, 30);
+                pattern.addSpawn(1500, 300, 650, 0, -baseSpeed * 1.3 * complexityFactor, 30);
+                // Mission 5: Add ultimate challenge
+                if (mission >= 5) {
+                    pattern.addSpawn(2000, -50, -50, baseSpeed * 1.3 * complexityFactor, baseSpeed * 1.3, 30);
+                    pattern.addSpawn(2000, 650, 650, -baseSpeed * 1.3 * complexityFactor, -baseSpeed * 1.3, 30);
+                }
+                break;
+
+            case 14: // FINAL BOSS
+                double finalSpeed = baseSpeed * 1.4 * complexityFactor;
+
+                // Fast horizontal pursuit
+                pattern.addSpawn(0, -50, 200, finalSpeed, 0, 30);
+                pattern.addSpawn(0, 650, 400, -finalSpeed, 0, 30);
+
+                // Diagonal crossing
+                pattern.addSpawn(500, -50, -50, finalSpeed * 0.9, finalSpeed * 0.9, 30);
+                pattern.addSpawn(500, 650, 650, -finalSpeed * 0.9, -finalSpeed * 0.9, 30);
+
+                // Converging paths
+                pattern.addSpawn(1000, -50, 300, finalSpeed * 0.95, finalSpeed * 0.3, 30);
+                pattern.addSpawn(1000, 650, 300, -finalSpeed * 0.95, finalSpeed * 0.3, 30);
+
+                // Vertical chase
+                pattern.addSpawn(1500, 300, -50, 0, finalSpeed, 30);
+                pattern.addSpawn(1800, 300, 650, 0, -finalSpeed, 30);
+
+                // Final diagonal sweep
+                pattern.addSpawn(2100, -50, 450, finalSpeed * 0.95, -finalSpeed * 0.5, 30);
+                pattern.addSpawn(2100, 650, 150, -finalSpeed * 0.95, finalSpeed * 0.5, 30);
+
+                // Mission 2+: Add chaos waves
+                if (mission >= 2) {
+                    pattern.addSpawn(2500, 300, -50, 0, finalSpeed, 30);
+                    pattern.addSpawn(2800, -50, 300, finalSpeed, 0, 30);
+                }
+
+                // Mission 3+: Add pincer finale
+                if (mission >= 3) {
+                    pattern.addSpawn(3100, -50, 100, finalSpeed, finalSpeed * 0.4, 30);
+                    pattern.addSpawn(3100, -50, 500, finalSpeed, -finalSpeed * 0.4, 30);
+                    pattern.addSpawn(3100, 650, 100, -finalSpeed, finalSpeed * 0.4, 30);
+                    pattern.addSpawn(3100, 650, 500, -finalSpeed, -finalSpeed * 0.4, 30);
+                }
+                break;
+
+            default:
+                pattern.addSpawn(0, -50, 300, baseSpeed, 0, 30);
+        }
+
+        return pattern;
+    }
+}
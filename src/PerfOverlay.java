@@ -0,0 +1,91 @@
+import java.awt.*;
+import java.util.Locale;
+
+/**
+ * Small text overlay with live performance numbers, drawn over the game view.
+ * Toggled with F3 in a mission, through JMX, or on from the start with
+ * -Daquavision.perfOverlay=true.
+ *
+ * The text is rebuilt at most every REFRESH_NANOS (readable anyway, and the
+ * percentiles sort their samples), and the font is kept while the scale stays the
+ * same, so a frame with the overlay on only draws a few strings.
+ */
+public class PerfOverlay {
+
+    private static volatile boolean enabled = Boolean.getBoolean("aquavision.perfOverlay");
+
+    private static final Color PANEL = new Color(0, 0, 0, 160);
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    // Only touched on the EDT
+    private static String[] lines = new String[0];
+    private static long linesNanos;
+    private static Font font;
+    private static int fontSize;
+    private static int textWidth = -1;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static void toggle() {
+        enabled = !enabled;
+    }
+
+    // view: the on-screen game area; scale: view size / world size
+    // resolution and quality: what the frame is rendered at (see QualityGovernor)
+    static void draw(Graphics2D g, Rectangle view, double scale, GameLoop loop, int fishCount,
+                     int resolution, String quality) {
+        long now = System.nanoTime();
+        if (lines.length == 0 || now - linesNanos >= REFRESH_NANOS) {
+            lines = text(loop, fishCount, resolution, quality);
+            linesNanos = now;
+            textWidth = -1;
+        }
+
+        int size = Math.max(10, (int) Math.round(12 * scale));
+        if (font == null || size != fontSize) {
+            font = new Font(Font.MONOSPACED, Font.PLAIN, size);
+            fontSize = size;
+            textWidth = -1;
+        }
+        g.setFont(font);
+        FontMetrics fm = g.getFontMetrics();
+        int lineHeight = fm.getHeight();
+        if (textWidth < 0) {
+            textWidth = 0;
+            for (String line : lines) textWidth = Math.max(textWidth, fm.stringWidth(line));
+        }
+
+        int pad = lineHeight / 3;
+        int x = view.x + pad;
+        int y = view.y + view.height - lines.length * lineHeight - 3 * pad;
+
+        g.setColor(PANEL);
+        g.fillRect(x, y, textWidth + 2 * pad, lines.length * lineHeight + 2 * pad);
+        g.setColor(Color.GREEN);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], x + pad, y + pad + fm.getAscent() + i * lineHeight);
+        }
+    }
+
+    private static String[] text(GameLoop loop, int fishCount, int resolution, String quality) {
+        LatencyRecorder ticks = loop.getTickTimes();
+        return new String[]{
+                String.format(Locale.ROOT, "%.1f fps  tick p50 %.2f / p99 %.2f ms  cpu %.0f%%%s",
+                        loop.getFramesPerSecond(), ticks.percentileMillis(50), ticks.percentileMillis(99),
+                        CpuMeter.process(), GameLoop.isPowerSaving() ? " eco" : ""),
+                String.format(Locale.ROOT, "fish %d  render %dpx %s  input p95 %.1f ms",
+                        fishCount, resolution, quality,
+                        Game.INPUT_TO_DISPLAY.percentileMillis(95)),
+                String.format(Locale.ROOT, "db p95 %.1f ms  assets %.0f%%  underruns %d",
+                        DatabaseManager.getCallLatency().percentileMillis(95),
+                        AssetCache.getHitRate() * 100,
+                        SoundManager.getUnderruns() + SoundEffects.getUnderruns())
+        };
+    }
+}
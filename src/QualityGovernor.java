@@ -0,0 +1,155 @@
+import java.util.Locale;
+
+/**
+ * Lowers render quality when frames miss the display's budget, and raises it again
+ * once there is room.
+ *
+ * Frames are judged in windows of one second. A frame is slow when its ticks and
+ * paint together take more than SLOW_SHARE of the frame budget (the cost BenchmarkRun
+ * measures too). When more than MAX_SLOW_FRAMES of a window is slow, the governor
+ * drops one tier. It climbs back only after a run of windows that all stayed under
+ * FAST_SHARE of the budget. That run starts at UP_WINDOWS and doubles each time a
+ * climb has to be undone straight away. The first window after any change, or after
+ * the loop restarts, is not judged while caches and the JIT settle. The gap between
+ * the two thresholds and the growing climb delay keep it from flipping between two
+ * tiers.
+ *
+ * Every change is kept for the current attempt and stored with it in attempt_history.
+ * -Daquavision.qualityTier=HIGH|NO_ANTIALIAS|SPRITES|REDUCED|MINIMAL pins a tier.
+ */
+public class QualityGovernor {
+
+    public enum Tier {
+        HIGH(true, false, 1.0, true),
+        NO_ANTIALIAS(false, false, 1.0, true),
+        SPRITES(false, true, 1.0, true),
+        REDUCED(false, true, 2 / 3.0, true),
+        MINIMAL(false, true, 0.5, false);
+
+        final boolean antialias;         // vector fish drawn antialiased
+        final boolean sprites;           // fish blitted from cached images instead of filled paths
+        final double resolutionScale;    // share of the configured internal resolution
+        final boolean interpolate;       // smooth motion between ticks; off reuses the last scene
+
+        Tier(boolean antialias, boolean sprites, double resolutionScale, boolean interpolate) {
+            this.antialias = antialias;
+            this.sprites = sprites;
+            this.resolutionScale = resolutionScale;
+            this.interpolate = interpolate;
+        }
+
+        // Internal resolution for this tier, never below RenderConfig's minimum
+        int resolution(int configured) {
+            return Math.max(RenderConfig.WORLD_SIZE / 2, (int) Math.round(configured * resolutionScale));
+        }
+    }
+
+    private static final double SLOW_SHARE = 0.9;
+    private static final double MAX_SLOW_FRAMES = 0.1;
+    private static final double FAST_SHARE = 0.5;
+    private static final int UP_WINDOWS = 5;
+    private static final int MAX_UP_WINDOWS = 80;
+
+    private static final Tier PINNED = parseTier(System.getProperty("aquavision.qualityTier"));
+
+    private volatile Tier tier = PINNED != null ? PINNED : Tier.HIGH;
+
+    private long budgetNanos = 1_000_000_000L / RenderConfig.DEFAULT_REFRESH_RATE;
+    private int windowFrames = RenderConfig.DEFAULT_REFRESH_RATE;
+    private int frames = 0;
+    private int slowFrames = 0;
+    private int fastFrames = 0;
+    private boolean settling = true;
+    private int fastWindows = 0;
+    private int upWindowsNeeded = UP_WINDOWS;
+    private boolean justClimbed = false;
+
+    private long attemptStart = System.nanoTime();
+    private final StringBuilder changes = new StringBuilder();
+
+    public Tier getTier() {
+        return tier;
+    }
+
+    // The tier for runs that must not adapt (benchmark): the pinned one, else HIGH
+    public Tier getBaseline() {
+        return PINNED != null ? PINNED : Tier.HIGH;
+    }
+
+    // A new attempt: starts its change log; the tier carries over, the machine is the same
+    public void startAttempt(int refreshRate) {
+        attemptStart = System.nanoTime();
+        changes.setLength(0);
+        changes.append("start ").append(tier);
+        resume(refreshRate);
+    }
+
+    // The loop is (re)starting; the next window is not judged
+    public void resume(int refreshRate) {
+        budgetNanos = 1_000_000_000L / Math.max(1, refreshRate);
+        windowFrames = Math.max(1, refreshRate);
+        frames = slowFrames = fastFrames = 0;
+        settling = true;
+    }
+
+    // Tier history of the current attempt, e.g. "start HIGH; 12.4s HIGH>NO_ANTIALIAS (slow 23%)"
+    public String describeAttempt() {
+        return changes.toString();
+    }
+
+    // Cost of one presented frame: its ticks plus paint and present
+    public void frame(long costNanos) {
+        if (PINNED != null) return;
+
+        frames++;
+        if (costNanos > budgetNanos * SLOW_SHARE) slowFrames++;
+        if (costNanos < budgetNanos * FAST_SHARE) fastFrames++;
+        if (frames < windowFrames) return;
+
+        double slow = (double) slowFrames / frames;
+        boolean fast = fastFrames == frames;
+        boolean judge = !settling;
+        frames = slowFrames = fastFrames = 0;
+        settling = false;
+        if (!judge) return;
+
+        if (slow > MAX_SLOW_FRAMES) {
+            fastWindows = 0;
+            if (justClimbed) {
+                // The tier above was not sustainable after all; wait longer next time
+                upWindowsNeeded = Math.min(MAX_UP_WINDOWS, upWindowsNeeded * 2);
+            }
+            if (tier.ordinal() < Tier.values().length - 1) {
+                change(Tier.values()[tier.ordinal() + 1], slow);
+            }
+        } else if (fast && tier.ordinal() > 0) {
+            justClimbed = false;
+            if (++fastWindows >= upWindowsNeeded) {
+                fastWindows = 0;
+                change(Tier.values()[tier.ordinal() - 1], slow);
+                justClimbed = true;
+            }
+        } else {
+            fastWindows = 0;
+            justClimbed = false;
+        }
+    }
+
+    private void change(Tier next, double slowShare) {
+        String entry = String.format(Locale.ROOT, "%.1fs %s>%s (slow %.0f%%)",
+                (System.nanoTime() - attemptStart) / 1e9, tier, next, slowShare * 100);
+        changes.append("; ").append(entry);
+        tier = next;
+        settling = true;
+    }
+
+    private static Tier parseTier(String value) {
+        if (value == null) return null;
+        try {
+            return Tier.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown quality tier '" + value + "', adapting automatically");
+            return null;
+        }
+    }
+}
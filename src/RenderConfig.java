@@ -0,0 +1,132 @@
+import java.awt.*;
+
+/**
+ * Display settings for the game window.
+ *
+ * The game world is always WORLD_SIZE x WORLD_SIZE logical units. It is rendered at
+ * the selected internal resolution and scaled to the window in a single blit, so
+ * the per-frame cost follows the internal resolution rather than the monitor.
+ *
+ * The window mode decides how the mission window is shown: a centered window, a
+ * borderless window covering the screen, or fullscreen exclusive mode, where frames
+ * are page-flipped in sync with the display.
+ *
+ * The output mode decides how the two eyes' scenes are shown: composited for red/cyan
+ * glasses, or side by side, one eye per half, for phone-style stereoscopes.
+ */
+public class RenderConfig {
+
+    public static final int WORLD_SIZE = 600;
+    public static final int DEFAULT_REFRESH_RATE = 60;
+
+    public enum WindowMode { WINDOWED, BORDERLESS, EXCLUSIVE }
+
+    public enum OutputMode { ANAGLYPH, SIDE_BY_SIDE }
+
+    // -Daquavision.renderResolution=1200 selects the internal resolution
+    private static final int internalResolution =
+            sanitize(Integer.getInteger("aquavision.renderResolution", WORLD_SIZE));
+
+    // -Daquavision.windowMode=exclusive|borderless|windowed
+    private static final WindowMode windowMode = parseWindowMode(System.getProperty("aquavision.windowMode"));
+
+    // -Daquavision.output=side_by_side|anaglyph
+    private static final OutputMode outputMode = parseOutputMode(System.getProperty("aquavision.output"));
+
+    // -Daquavision.displayMode=1920x1080@120 switches the display in exclusive mode;
+    // by default the desktop mode is kept, which avoids a slow mode change
+    private static final String displayMode = System.getProperty("aquavision.displayMode");
+
+    public static int getInternalResolution() {
+        return internalResolution;
+    }
+
+    public static WindowMode getWindowMode() {
+        return windowMode;
+    }
+
+    public static OutputMode getOutputMode() {
+        return outputMode;
+    }
+
+    // Width of the world view over its height: two views side by side in stereo
+    public static int viewAspect() {
+        return outputMode == OutputMode.SIDE_BY_SIDE ? 2 : 1;
+    }
+
+    // Largest whole multiple of the world that fits in 85% of the screen height,
+    // so the window is not tiny on 4K monitors without OS scaling
+    public static int windowSize(GraphicsConfiguration gc) {
+        if (gc == null) return WORLD_SIZE;
+        int screenHeight = gc.getBounds().height;
+        int scale = Math.max(1, (int) (screenHeight * 0.85 / WORLD_SIZE));
+        return WORLD_SIZE * scale;
+    }
+
+    // The requested exclusive-mode display mode, or null to keep the current one
+    public static DisplayMode chooseDisplayMode(GraphicsDevice device) {
+        String spec = displayMode;
+        if (spec == null || spec.isBlank()) return null;
+
+        int width, height, refresh = DisplayMode.REFRESH_RATE_UNKNOWN;
+        try {
+            String[] modeAndRate = spec.trim().split("@");
+            String[] size = modeAndRate[0].split("x");
+            width = Integer.parseInt(size[0].trim());
+            height = Integer.parseInt(size[1].trim());
+            if (modeAndRate.length > 1) refresh = Integer.parseInt(modeAndRate[1].trim());
+        } catch (RuntimeException e) {
+            System.err.println("Invalid display mode '" + spec + "', expected WIDTHxHEIGHT or WIDTHxHEIGHT@HZ");
+            return null;
+        }
+
+        DisplayMode best = null;
+        for (DisplayMode mode : device.getDisplayModes()) {
+            if (mode.getWidth() != width || mode.getHeight() != height) continue;
+            if (refresh != DisplayMode.REFRESH_RATE_UNKNOWN && mode.getRefreshRate() != refresh) continue;
+
+            // Prefer the highest refresh rate, then the deepest color
+            if (best == null
+                    || mode.getRefreshRate() > best.getRefreshRate()
+                    || (mode.getRefreshRate() == best.getRefreshRate() && mode.getBitDepth() > best.getBitDepth())) {
+                best = mode;
+            }
+        }
+        if (best == null) {
+            System.err.println("Display mode " + spec + " is not available, keeping the current mode");
+        }
+        return best;
+    }
+
+    // Some drivers do not report a refresh rate; assume the common 60 Hz then
+    public static int refreshRate(DisplayMode mode) {
+        if (mode == null || mode.getRefreshRate() == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            return DEFAULT_REFRESH_RATE;
+        }
+        return mode.getRefreshRate();
+    }
+
+    private static int sanitize(int resolution) {
+        return Math.max(WORLD_SIZE / 2, Math.min(4 * WORLD_SIZE, resolution));
+    }
+
+    private static OutputMode parseOutputMode(String value) {
+        if (value == null) return OutputMode.ANAGLYPH;
+        try {
+            return OutputMode.valueOf(value.trim().toUpperCase(java.util.Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown output mode '" + value + "', using anaglyph");
+            return OutputMode.ANAGLYPH;
+        }
+    }
+
+    private static WindowMode parseWindowMode(String value) {
+        if (value == null) return WindowMode.WINDOWED;
+        try {
+            return WindowMode.valueOf(value.trim().toUpperCase(java.util.Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown window mode '" + value + "', using windowed");
+            return WindowMode.WINDOWED;
+        }
+    }
+}
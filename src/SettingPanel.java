@@ -5,7 +5,6 @@ import javax.swing.plaf.basic.BasicSliderUI;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.geom.RoundRectangle2D;
-import java.net.URL;
 
 public class SettingPanel extends BasePanel {
 
@@ -19,11 +18,10 @@ public class SettingPanel extends BasePanel {
         setSize(400, 550);
 
         // --- Kapatma Butonu ---
-        URL closeUrl = getClass().getResource("/close.png");
+        Image closeImg = AssetCache.get("/close.png", 60, 40);
         JButton closeBtn;
-        if (closeUrl != null) {
-            Image scaled = new ImageIcon(closeUrl).getImage().getScaledInstance(60, 40, Image.SCALE_SMOOTH);
-            closeBtn = new JButton(new ImageIcon(scaled));
+        if (closeImg != null) {
+            closeBtn = new JButton(new ImageIcon(closeImg));
         } else {
             closeBtn = new JButton("X");
         }
@@ -49,8 +47,7 @@ public class SettingPanel extends BasePanel {
         JSlider slider = new JSlider(0, 100, 50);
         slider.setBounds(30, 85, 300, 40);
         slider.setPaintTicks(false); slider.setPaintLabels(false);
-        URL sliderUrl = getClass().getResource("/level_active.png");
-        Image thumbImg = (sliderUrl != null) ? new ImageIcon(sliderUrl).getImage() : null;
+        Image thumbImg = AssetCache.get("/level_active.png", 45, 40);
         slider.setUI(new SeaSliderUI(slider, thumbImg));
         slider.setOpaque(false); slider.setBackground(new Color(189, 237, 255));
         slider.addChangeListener(e -> {
@@ -75,13 +72,8 @@ public class SettingPanel extends BasePanel {
 
         if (LazyEyeConfig.isRightEyeSelected()) rbRight.setSelected(true); else rbLeft.setSelected(true);
         ActionListener eyeListener = e -> {
-            LazyEyeConfig.setRightEye(rbRight.isSelected());
-
-            DatabaseManager.saveUserSettings(
-                    LazyEyeConfig.isRightEyeSelected(),
-                    LazyEyeConfig.getPlayerColor(),
-                    LazyEyeConfig.getEnemyColor()
-            );
+            // Saved in the background
+            LazyEyeConfig.update(s -> s.withRightEye(rbRight.isSelected()), true);
 
             updateColorBoxes();
             mainPreviewPanel.repaint();
@@ -139,8 +131,9 @@ public class SettingPanel extends BasePanel {
     }
 
     private void updateColorBoxes() {
-        playerColorBox.setBackground(LazyEyeConfig.getPlayerColor());
-        enemyColorBox.setBackground(LazyEyeConfig.getEnemyColor());
+        LazyEyeConfig.Settings settings = LazyEyeConfig.get();
+        playerColorBox.setBackground(settings.playerColor());
+        enemyColorBox.setBackground(settings.enemyColor());
     }
 
     private void openLiveColorDialog(String title, boolean isPlayer) {
@@ -160,9 +153,10 @@ public class SettingPanel extends BasePanel {
         colorChooser.getSelectionModel().addChangeListener(new ChangeListener() {
             @Override
             public void stateChanged(ChangeEvent e) {
+                // Live preview only; saved on OK
                 Color newColor = colorChooser.getColor();
-                if (isPlayer) LazyEyeConfig.setPlayerColor(newColor);
-                else LazyEyeConfig.setEnemyColor(newColor);
+                LazyEyeConfig.update(s -> isPlayer ? s.withBasePlayerColor(newColor) : s.withBaseEnemyColor(newColor),
+                        false);
                 bigLivePreview.repaint();
             }
         });
@@ -175,11 +169,7 @@ public class SettingPanel extends BasePanel {
             updateColorBoxes();
             mainPreviewPanel.repaint();
 
-            DatabaseManager.saveUserSettings(
-                    LazyEyeConfig.isRightEyeSelected(),
-                    LazyEyeConfig.getPlayerColor(),
-                    LazyEyeConfig.getEnemyColor()
-            );
+            LazyEyeConfig.update(s -> s, true);
 
             liveDialog.dispose();
         });
@@ -211,10 +201,11 @@ public class SettingPanel extends BasePanel {
             g2d.fillRect(0, 0, panelW, panelH);
 
             int centerX = (panelW - fishW) / 2;
+            LazyEyeConfig.Settings settings = LazyEyeConfig.get();
 
             // Player
             int playerY = (panelH / 4) - (fishH / 2);
-            FishRenderer.drawFish(g2d, centerX, playerY, fishW, fishH, LazyEyeConfig.getPlayerColor(), true);
+            FishRenderer.drawFish(g2d, centerX, playerY, fishW, fishH, settings.playerColor(), true);
 
             g2d.setColor(Color.GRAY);
             g2d.setFont(new Font("Arial", Font.PLAIN, 12));
@@ -229,7 +220,7 @@ public class SettingPanel extends BasePanel {
 
             // Enemy
             int enemyY = (panelH * 3 / 4) - (fishH / 2);
-            FishRenderer.drawFish(g2d, centerX, enemyY, fishW, fishH, LazyEyeConfig.getEnemyColor(), false);
+            FishRenderer.drawFish(g2d, centerX, enemyY, fishW, fishH, settings.enemyColor(), false);
 
             g2d.setColor(Color.GRAY);
             labelX = centerX + (fishW - fm.stringWidth("OTHERS")) / 2;
@@ -256,7 +247,7 @@ class SeaSliderUI extends BasicSliderUI {
     }
     @Override public void paintThumb(Graphics g) {
         Graphics2D g2d = (Graphics2D) g; g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        if (thumbImage != null) g2d.drawImage(thumbImage, thumbRect.x, thumbRect.y - 8, 45, 40, null);
+        if (thumbImage != null) g2d.drawImage(thumbImage, thumbRect.x, thumbRect.y - 8, null);
         else { g2d.setColor(new Color(255, 200, 50)); g2d.fillOval(thumbRect.x, thumbRect.y, thumbRect.width, thumbRect.height); }
     }
     @Override protected Dimension getThumbSize() { return new Dimension(45, 40); }
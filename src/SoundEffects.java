@@ -0,0 +1,264 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short gameplay cues mixed in software into a single output line.
+ *
+ * All cue samples are synthesized once in init(); triggering a cue only claims one
+ * of the fixed voices (or steals the oldest one), so nothing is allocated or opened
+ * on the game thread. The mixer renders small chunks into a line with a tiny buffer,
+ * which keeps event-to-sound latency at a few milliseconds. Cues can be scheduled a
+ * number of game milliseconds ahead; the start is placed on the exact output frame.
+ * The mixer clock keeps running while the game is paused, so the game brackets a
+ * pause with hold() and release(): cues not yet started wait, and on release their
+ * start frames move by the paused time, so the delay counts game time only.
+ */
+public class SoundEffects {
+
+    public enum Cue { PHASE_START, COLLISION, PHASE_ADVANCE, MISSION_COMPLETE }
+
+    private static final float SAMPLE_RATE = 44100f;
+    private static final int CHUNK_FRAMES = 128;           // ~2.9 ms per mix pass
+    private static final int LINE_BUFFER_FRAMES = 512;     // ~11.6 ms queued in the device
+    private static final int VOICES = 8;
+    private static final long IDLE_MS = 1000;              // stop feeding silence after this
+    private static final long RETRY_MS = 5000;
+
+    private static final short[][] samples = new short[Cue.values().length][];
+
+    // Voice pool, guarded by lock. voiceCue == -1 means the voice is free.
+    private static final Object lock = new Object();
+    private static final int[] voiceCue = new int[VOICES];
+    private static final int[] voicePos = new int[VOICES];
+    private static final float[] voiceGain = new float[VOICES];
+    private static final long[] voiceStart = new long[VOICES];
+    private static long mixerFrame = 0;                    // output frames rendered so far
+    private static boolean held = false;                   // unstarted cues wait while set
+    private static long heldAt = 0;                        // mixerFrame when the hold began
+
+    private static Thread mixerThread;
+    private static final AtomicLong underruns = new AtomicLong();
+
+    public static synchronized void init() {
+        if (mixerThread != null) return;
+
+        for (int v = 0; v < VOICES; v++) voiceCue[v] = -1;
+        samples[Cue.PHASE_START.ordinal()] = chirp(600, 900, 0.09);
+        samples[Cue.COLLISION.ordinal()] = buzz(150, 0.25);
+        samples[Cue.PHASE_ADVANCE.ordinal()] = notes(0.08, 880, 1320);
+        samples[Cue.MISSION_COMPLETE.ordinal()] = notes(0.12, 523.25, 659.25, 783.99, 1046.5);
+
+        mixerThread = new Thread(SoundEffects::mixLoop, "sound-effects");
+        mixerThread.setDaemon(true);
+        mixerThread.setPriority(Thread.MAX_PRIORITY);
+        mixerThread.start();
+    }
+
+    public static void play(Cue cue, float gain) {
+        schedule(cue, gain, 0);
+    }
+
+    // delayMs is game time from now; the cue starts on the matching output frame, and
+    // time between hold() and release() does not count
+    public static void schedule(Cue cue, float gain, long delayMs) {
+        if (mixerThread == null) return;
+
+        synchronized (lock) {
+            int voice = 0;
+            for (int v = 0; v < VOICES; v++) {
+                if (voiceCue[v] < 0) {
+                    voice = v;
+                    break;
+                }
+                if (voiceStart[v] < voiceStart[voice]) voice = v;  // steal the oldest
+            }
+            voiceCue[voice] = cue.ordinal();
+            voicePos[voice] = 0;
+            voiceGain[voice] = gain;
+            voiceStart[voice] = (held ? heldAt : mixerFrame) + (long) (delayMs * SAMPLE_RATE / 1000);
+            lock.notifyAll();
+        }
+    }
+
+    // The game paused: cues that have not started wait; cues already playing finish
+    public static void hold() {
+        synchronized (lock) {
+            if (held) return;
+            held = true;
+            heldAt = mixerFrame;
+        }
+    }
+
+    // The game resumed: waiting cues keep the delay they had left when the hold began
+    public static void release() {
+        synchronized (lock) {
+            if (!held) return;
+            long paused = mixerFrame - heldAt;
+            for (int v = 0; v < VOICES; v++) {
+                if (voiceCue[v] >= 0 && voiceStart[v] >= heldAt) voiceStart[v] += paused;
+            }
+            held = false;
+            lock.notifyAll();
+        }
+    }
+
+    // The attempt the cues belong to is over: drops the ones not yet started, ends a hold
+    public static void cancelPending() {
+        synchronized (lock) {
+            long now = held ? heldAt : mixerFrame;
+            for (int v = 0; v < VOICES; v++) {
+                if (voiceCue[v] >= 0 && voiceStart[v] >= now) voiceCue[v] = -1;
+            }
+            held = false;
+        }
+    }
+
+    private static void mixLoop() {
+        boolean reported = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+            try (SourceDataLine line = AudioSystem.getSourceDataLine(format)) {
+                line.open(format, LINE_BUFFER_FRAMES * 2);
+                line.start();
+                reported = false;
+                // Estimated from the buffer sizes: the line's buffer plus one mix chunk
+                System.out.printf("Sound effects ready, estimated output latency ~%.1f ms%n",
+                        (line.getBufferSize() / 2 + CHUNK_FRAMES) * 1000f / SAMPLE_RATE);
+                render(line);
+                return;
+            } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+                if (!reported) {
+                    System.err.println("No audio output available, sound effects muted: " + e.getMessage());
+                    reported = true;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                Thread.sleep(RETRY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void render(SourceDataLine line) throws InterruptedException {
+        float[] mix = new float[CHUNK_FRAMES];
+        byte[] out = new byte[CHUNK_FRAMES * 2];
+        long idleFrames = 0;
+        long idleLimit = (long) (IDLE_MS * SAMPLE_RATE / 1000);
+        boolean primed = false;   // an empty line is only an underrun once it has been fed
+
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean active = false;
+
+            synchronized (lock) {
+                // Nothing playing for a while, or only held cues: stop feeding silence and sleep
+                if (idleFrames > idleLimit) {
+                    while (held || !anyVoice()) lock.wait();
+                    line.flush();
+                    idleFrames = 0;
+                    primed = false;
+                }
+
+                Arrays.fill(mix, 0f);
+                long chunkStart = mixerFrame;
+
+                for (int v = 0; v < VOICES; v++) {
+                    int cue = voiceCue[v];
+                    if (cue < 0 || (held && voiceStart[v] >= chunkStart)) continue;
+                    active = true;
+
+                    short[] data = samples[cue];
+                    int from = (int) Math.max(0, voiceStart[v] - chunkStart);
+                    float gain = voiceGain[v];
+                    int pos = voicePos[v];
+
+                    for (int i = from; i < CHUNK_FRAMES && pos < data.length; i++) {
+                        mix[i] += data[pos++] * gain;
+                    }
+                    voicePos[v] = pos;
+                    if (pos >= data.length) voiceCue[v] = -1;
+                }
+                mixerFrame += CHUNK_FRAMES;
+            }
+
+            idleFrames = active ? 0 : idleFrames + CHUNK_FRAMES;
+
+            for (int i = 0; i < CHUNK_FRAMES; i++) {
+                int s = Math.round(mix[i]);
+                if (s > Short.MAX_VALUE) s = Short.MAX_VALUE;
+                if (s < Short.MIN_VALUE) s = Short.MIN_VALUE;
+                out[i * 2] = (byte) s;
+                out[i * 2 + 1] = (byte) (s >> 8);
+            }
+            if (primed && line.available() >= line.getBufferSize()) {
+                underruns.incrementAndGet();
+            }
+            line.write(out, 0, out.length);
+            primed = true;
+        }
+    }
+
+    // Times the mixer fell behind and the line played out everything it had
+    public static long getUnderruns() {
+        return underruns.get();
+    }
+
+    private static boolean anyVoice() {
+        for (int v = 0; v < VOICES; v++) {
+            if (voiceCue[v] >= 0) return true;
+        }
+        return false;
+    }
+
+    // ================= CUE SYNTHESIS =================
+
+    private static short[] chirp(double fromHz, double toHz, double seconds) {
+        int n = (int) (seconds * SAMPLE_RATE);
+        short[] data = new short[n];
+        double phase = 0;
+        for (int i = 0; i < n; i++) {
+            double t = (double) i / n;
+            phase += 2 * Math.PI * (fromHz + (toHz - fromHz) * t) / SAMPLE_RATE;
+            data[i] = (short) (Math.sin(phase) * envelope(i, n) * 9000);
+        }
+        return data;
+    }
+
+    private static short[] buzz(double hz, double seconds) {
+        int n = (int) (seconds * SAMPLE_RATE);
+        short[] data = new short[n];
+        Random noise = new Random(7);
+        for (int i = 0; i < n; i++) {
+            double square = Math.signum(Math.sin(2 * Math.PI * hz * i / SAMPLE_RATE));
+            double sample = square * 0.7 + (noise.nextDouble() * 2 - 1) * 0.3;
+            data[i] = (short) (sample * envelope(i, n) * 7000);
+        }
+        return data;
+    }
+
+    private static short[] notes(double noteSeconds, double... frequencies) {
+        int perNote = (int) (noteSeconds * SAMPLE_RATE);
+        short[] data = new short[perNote * frequencies.length];
+        for (int note = 0; note < frequencies.length; note++) {
+            for (int i = 0; i < perNote; i++) {
+                double sample = Math.sin(2 * Math.PI * frequencies[note] * i / SAMPLE_RATE);
+                data[note * perNote + i] = (short) (sample * envelope(i, perNote) * 9000);
+            }
+        }
+        return data;
+    }
+
+    // 5 ms attack, exponential decay: no clicks at the start or end of a cue
+    private static double envelope(int i, int n) {
+        double attack = Math.min(1.0, i / (0.005 * SAMPLE_RATE));
+        return attack * Math.exp(-4.0 * i / n);
+    }
+}
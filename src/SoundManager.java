@@ -1,39 +1,169 @@
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Background music, streamed from the WAV resource through a SourceDataLine.
+ * Only a small ring buffer of PCM is ever held in memory; at the end of the
+ * track the stream is reopened and the ring keeps feeding the line, so the
+ * loop point has no gap.
+ */
 public class SoundManager {
 
-    private static Clip music;
-    private static FloatControl volume;
+    private static final String MUSIC_RESOURCE = "/Child_Game_Bg_Music.wav";
 
-    public static void init() {
-        try {
-            URL soundUrl = SoundManager.class.getResource("/Child_Game_Bg_Music.wav");
-            if (soundUrl == null) {
-                System.err.println("Sound file not found in classpath");
+    private static final int RING_BYTES = 64 * 1024;       // ~370 ms of 44.1 kHz 16-bit stereo
+    private static final int LINE_BUFFER_BYTES = 32 * 1024;
+    private static final int CHUNK_BYTES = 4 * 1024;
+    private static final long RETRY_MS = 5000;
+
+    private static Thread musicThread;
+    private static volatile FloatControl volume;
+    private static volatile Float requestedVolume;          // null until the slider is moved
+    private static final AtomicLong underruns = new AtomicLong();
+
+    public static synchronized void init() {
+        if (musicThread != null) return;
+
+        if (SoundManager.class.getResource(MUSIC_RESOURCE) == null) {
+            System.err.println("Sound file not found in classpath");
+            return;
+        }
+
+        musicThread = new Thread(SoundManager::playLoop, "music");
+        musicThread.setDaemon(true);
+        musicThread.setPriority(Thread.MIN_PRIORITY);
+        musicThread.start();
+    }
+
+    public static void setVolume(float value) {
+        requestedVolume = value;
+        FloatControl control = volume;
+        if (control != null) {
+            control.setValue(clamp(control, value));
+        }
+    }
+
+    // Never lets an exception escape: without an audio device (headless boxes,
+    // unplugged headphones) it logs once and retries every few seconds.
+    private static void playLoop() {
+        boolean reported = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                stream();
+                reported = false;
+            } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+                if (!reported) {
+                    System.err.println("No audio output available, music paused: " + e.getMessage());
+                    reported = true;
+                }
+            } catch (IOException | UnsupportedAudioFileException e) {
+                System.err.println("Music stream error: " + e.getMessage());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            try {
+                Thread.sleep(RETRY_MS);
+            } catch (InterruptedException e) {
                 return;
             }
-            AudioInputStream audio = AudioSystem.getAudioInputStream(soundUrl);
+        }
+    }
+
+    private static void stream() throws IOException, UnsupportedAudioFileException, LineUnavailableException {
+        AudioInputStream in = openMusic();
+        AudioFormat format = in.getFormat();
+        int frameSize = Math.max(1, format.getFrameSize());
 
-            music = AudioSystem.getClip();
-            music.open(audio);
-            audio.close();
+        SourceDataLine line = null;
+        try {
+            line = AudioSystem.getSourceDataLine(format);
+            line.open(format, LINE_BUFFER_BYTES - LINE_BUFFER_BYTES % frameSize);
 
-            volume = (FloatControl)
-                    music.getControl(FloatControl.Type.MASTER_GAIN);
+            if (line.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+                FloatControl control = (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN);
+                Float requested = requestedVolume;
+                if (requested != null) control.setValue(clamp(control, requested));
+                volume = control;
+            }
+            line.start();
 
-            music.loop(Clip.LOOP_CONTINUOUSLY);
+            byte[] ring = new byte[RING_BYTES - RING_BYTES % frameSize];
+            int readPos = 0;
+            int writePos = 0;
+            int filled = 0;
+            long readSinceOpen = 0;
+            boolean primed = false;
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            while (!Thread.currentThread().isInterrupted()) {
+                // Decode: top up the ring, wrapping to the start of the track at EOF
+                while (filled < ring.length) {
+                    int space = Math.min(ring.length - filled, ring.length - writePos);
+                    int n = in.read(ring, writePos, space - space % frameSize);
+                    if (n < 0) {
+                        // An empty or unreadable track would reopen in a busy loop;
+                        // give up and let playLoop retry after its delay
+                        if (readSinceOpen == 0) throw new IOException("music track has no audio data");
+                        in.close();
+                        in = openMusic();
+                        readSinceOpen = 0;
+                        continue;
+                    }
+                    if (n == 0) break;
+                    readSinceOpen += n;
+                    writePos = (writePos + n) % ring.length;
+                    filled += n;
+                }
+
+                // Play: hand one chunk to the line, blocking until it has room
+                int n = Math.min(CHUNK_BYTES, Math.min(filled, ring.length - readPos));
+                if (primed && line.available() >= line.getBufferSize()) {
+                    underruns.incrementAndGet();   // the line ran dry before this write
+                }
+                line.write(ring, readPos, n);
+                primed = true;
+                readPos = (readPos + n) % ring.length;
+                filled -= n;
+            }
+        } finally {
+            volume = null;
+            in.close();
+            if (line != null) line.close();
         }
     }
-    public static void setVolume(float value) {
-        if (volume != null) {
-            volume.setValue(value);
+
+    // Times the line played out everything it had before more music arrived
+    public static long getUnderruns() {
+        return underruns.get();
+    }
+
+    private static AudioInputStream openMusic() throws IOException, UnsupportedAudioFileException {
+        URL soundUrl = SoundManager.class.getResource(MUSIC_RESOURCE);
+        if (soundUrl == null) {
+            throw new IOException("Sound file not found in classpath");
         }
+        AudioInputStream audio = AudioSystem.getAudioInputStream(new BufferedInputStream(soundUrl.openStream()));
+
+        AudioFormat source = audio.getFormat();
+        if (source.getEncoding() == AudioFormat.Encoding.PCM_SIGNED) {
+            return audio;
+        }
+        AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
+                source.getSampleRate(), 16, source.getChannels(),
+                source.getChannels() * 2, source.getSampleRate(), false);
+        return AudioSystem.getAudioInputStream(pcm, audio);
+    }
+
+    private static float clamp(FloatControl control, float value) {
+        return Math.max(control.getMinimum(), Math.min(control.getMaximum(), value));
     }
-}
\ No newline at end of file
+}
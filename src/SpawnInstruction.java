@@ -0,0 +1,15 @@
+class SpawnInstruction {
+    long delay;
+    double x, y;
+    double vx, vy;
+    int size;
+
+    public SpawnInstruction(long delay, double x, double y, double vx, double vy, int size) {
+        this.delay = delay;
+        this.x = x;
+        this.y = y;
+        this.vx = vx;
+        this.vy = vy;
+        this.size = size;
+    }
+}
@@ -3,38 +3,39 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
-import java.net.URL;
 
 public class StartPanel extends BasePanel {
-    private final Image scaledBackground;
+    private Image scaledBackground;
 
     public StartPanel() {
         super();
 
         setLayout(null);
 
-        // Background
-        URL bgUrl = getClass().getResource("/background.png");
-        if (bgUrl != null) {
-            scaledBackground = new ImageIcon(bgUrl).getImage().getScaledInstance(600, 600, Image.SCALE_SMOOTH);
-        } else {
-            System.err.println("Resource not found: /background.png");
-            scaledBackground = null;
-        }
+        // Background (decoded and scaled in the background, shown once ready)
+        StartupPipeline.menuBackground().thenAccept(image -> SwingUtilities.invokeLater(() -> {
+            scaledBackground = image;
+            repaint();
+        }));
 
         // --- CHANGED TO ROUNDEDBUTTON ---
         RoundedButton startBtn = new RoundedButton("Start");
         startBtn.setBounds(230, 230, 160, 60);
         add(startBtn);
 
+        // Disabled until the screen opens, so clicks while settings load do not queue up
         startBtn.addActionListener(e -> {
-            JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
-            MissionPanel missionPanel = new MissionPanel(this);
-            frame.getContentPane().removeAll();
-            frame.getContentPane().add(missionPanel);
-            frame.revalidate();
-            frame.repaint();
-            missionPanel.requestFocusInWindow();
+            startBtn.setEnabled(false);
+            StartupPipeline.afterSettings(() -> {
+                startBtn.setEnabled(true);
+                JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
+                MissionPanel missionPanel = new MissionPanel(this);
+                frame.getContentPane().removeAll();
+                frame.getContentPane().add(missionPanel);
+                frame.revalidate();
+                frame.repaint();
+                missionPanel.requestFocusInWindow();
+            });
         });
 
         // --- CHANGED TO ROUNDEDBUTTON ---
@@ -43,16 +44,20 @@ public class StartPanel extends BasePanel {
         add(settingBtn);
 
         settingBtn.addActionListener(e -> {
-            JDialog dialog = new JDialog(
-                    (JFrame) SwingUtilities.getWindowAncestor(this),
-                    "",
-                    true
-            );
-            dialog.setSize(375, 500);
-            dialog.setUndecorated(true);
-            dialog.setLocationRelativeTo(null);
-            dialog.setContentPane(new SettingPanel());
-            dialog.setVisible(true);
+            settingBtn.setEnabled(false);
+            StartupPipeline.afterSettings(() -> {
+                settingBtn.setEnabled(true);
+                JDialog dialog = new JDialog(
+                        (JFrame) SwingUtilities.getWindowAncestor(this),
+                        "",
+                        true
+                );
+                dialog.setSize(375, 500);
+                dialog.setUndecorated(true);
+                dialog.setLocationRelativeTo(null);
+                dialog.setContentPane(new SettingPanel());
+                dialog.setVisible(true);
+            });
         });
 
         // --- CHANGED TO ROUNDEDBUTTON ---
@@ -71,6 +76,7 @@ public class StartPanel extends BasePanel {
         if (scaledBackground != null) {
             g.drawImage(scaledBackground, 0, 0, this);
         }
+        StartupPipeline.menuPainted();
     }
 }
 
@@ -0,0 +1,127 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the slow startup work (audio, database, images) off the main thread so the
+ * menu can be shown first. Stages that depend on each other are chained as futures:
+ *
+ *   audio      : SoundManager.init() -> SoundEffects.init()
+ *   database   : DatabaseManager.initialize() -> DatabaseManager.loadUserSettings()
+ *   icon       : decode appLogo.png -> frame / taskbar icon (on the EDT)
+ *   background : decode + scale background.png -> StartPanel
+ *   assets     : AssetCache.preload() for the remaining screens
+ *   metrics    : AquaVisionMetrics JMX registration
+ *   dashboard  : after database -> ClinicianDashboard.start(), if a port is set
+ *   backup     : after database -> DatabaseBackup.schedule(), HistoryRetention.schedule()
+ */
+public class StartupPipeline {
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(3, Runtime.getRuntime().availableProcessors()), new ThreadFactory());
+
+    private static CompletableFuture<Void> audio = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Void> settings = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Image> icon = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Image> menuBackground = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Void> assets = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Void> metrics = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Void> dashboard = CompletableFuture.completedFuture(null);
+    private static CompletableFuture<Void> backup = CompletableFuture.completedFuture(null);
+    private static final CompletableFuture<Void> menuPainted = new CompletableFuture<>();
+
+    // Called from main() before any Swing work so the stages overlap with frame creation
+    public static void start() {
+        audio = CompletableFuture.runAsync(
+                () -> StartupTimeline.time("audio init", SoundManager::init), executor)
+                .thenRun(() -> StartupTimeline.time("sound effects init", SoundEffects::init));
+
+        settings = CompletableFuture
+                .runAsync(() -> StartupTimeline.time("db initialize", DatabaseManager::initialize), executor)
+                .thenRun(() -> StartupTimeline.time("load user settings", DatabaseManager::loadUserSettings));
+
+        icon = CompletableFuture.supplyAsync(
+                () -> StartupTimeline.time("icon decode", () -> AssetCache.get("/appLogo.png")), executor);
+
+        menuBackground = CompletableFuture.supplyAsync(
+                () -> StartupTimeline.time("menu background", () -> AssetCache.get("/background.png", 600, 600)),
+                executor);
+
+        long assetsStart = System.nanoTime();
+        assets = AssetCache.preload(executor)
+                .thenRun(() -> StartupTimeline.record("asset preload", assetsStart, System.nanoTime()));
+
+        metrics = CompletableFuture.runAsync(
+                () -> StartupTimeline.time("jmx metrics", AquaVisionMetrics::register), executor);
+
+        dashboard = settings.thenRunAsync(
+                () -> StartupTimeline.time("clinician dashboard", ClinicianDashboard::start), executor);
+        backup = settings.thenRunAsync(() -> StartupTimeline.time("backup schedule", () -> {
+            DatabaseBackup.schedule();
+            HistoryRetention.schedule();
+        }), executor);
+
+        CompletableFuture.allOf(audio, settings, icon, menuBackground, assets, metrics, dashboard, backup, menuPainted)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        System.err.println("Startup stage failed: " + error.getMessage());
+                    }
+                    StartupTimeline.mark("startup complete");
+                    StartupTimeline.print();
+                });
+    }
+
+    public static void applyIcon(JFrame frame) {
+        icon.thenAccept(image -> {
+            if (image == null) return;
+            SwingUtilities.invokeLater(() -> {
+                frame.setIconImage(image);
+
+                // macOS Dock icon
+                try {
+                    if (Taskbar.isTaskbarSupported()) {
+                        Taskbar.getTaskbar().setIconImage(image);
+                    }
+                } catch (Exception e) {
+                    System.out.println("Could not set dock/taskbar icon: " + e.getMessage());
+                }
+            });
+        });
+    }
+
+    public static CompletableFuture<Image> menuBackground() {
+        return menuBackground;
+    }
+
+    public static void menuPainted() {
+        if (!menuPainted.isDone()) {
+            StartupTimeline.mark("menu painted");
+            menuPainted.complete(null);
+        }
+    }
+
+    // Screens that read the database or LazyEyeConfig open through here: the action runs
+    // on the EDT once the database stage is done (usually it already is), never blocking it
+    public static void afterSettings(Runnable action) {
+        settings.whenCompleteAsync((ignored, error) -> {
+            if (error != null) {
+                System.err.println("Settings were not loaded: " + error.getMessage());
+            }
+            action.run();
+        }, SwingUtilities::invokeLater);
+    }
+
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "startup-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class StartupTimeline {
+
+    // Enabled with -Daquavision.startupTimeline=true or the --startup-timeline argument
+    private static volatile boolean enabled = Boolean.getBoolean("aquavision.startupTimeline");
+
+    private static final long ORIGIN = System.nanoTime();
+    private static final List<Stage> stages = new ArrayList<>();
+    private static boolean printed = false;
+
+    public static void configure(String[] args) {
+        for (String arg : args) {
+            if ("--startup-timeline".equals(arg)) {
+                enabled = true;
+            }
+        }
+    }
+
+    public static void time(String stage, Runnable work) {
+        time(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, start, System.nanoTime());
+        }
+    }
+
+    // Zero-length entry, used for milestones such as "menu painted"
+    public static void mark(String milestone) {
+        long now = System.nanoTime();
+        record(milestone, now, now);
+    }
+
+    // For stages whose start and end happen on different threads
+    public static void record(String stage, long start, long end) {
+        synchronized (stages) {
+            stages.add(new Stage(stage, Thread.currentThread().getName(), start - ORIGIN, end - start));
+        }
+    }
+
+    public static void print() {
+        if (!enabled) return;
+
+        List<Stage> snapshot;
+        synchronized (stages) {
+            if (printed) return;
+            printed = true;
+            snapshot = new ArrayList<>(stages);
+        }
+        snapshot.sort((a, b) -> Long.compare(a.startNanos, b.startNanos));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== STARTUP TIMELINE ===\n");
+
+        // Time spent before main() (JVM boot + class loading), when the OS reports it
+        ProcessHandle.current().info().startInstant().ifPresent(jvmStart -> {
+            long bootMs = Duration.between(jvmStart, Instant.now()).toMillis() - ms(System.nanoTime() - ORIGIN);
+            sb.append(String.format("  %-28s %8s  %6d ms%n", "jvm boot (before main)", "", bootMs));
+        });
+
+        for (Stage s : snapshot) {
+            sb.append(String.format("  %-28s @%5d ms  %6d ms  [%s]%n",
+                    s.name, ms(s.startNanos), ms(s.durationNanos), s.thread));
+        }
+        sb.append("========================");
+        System.out.println(sb);
+    }
+
+    private static long ms(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private record Stage(String name, String thread, long startNanos, long durationNanos) { }
+}
@@ -0,0 +1,234 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cumulative success rate of a mission over all its attempts, as a line chart.
+ *
+ * The attempts are read and the chart drawn into an image by a SwingWorker; until it
+ * is done the component shows a placeholder. The series is reduced to about one point
+ * per pixel of plot width with Largest-Triangle-Three-Buckets, which keeps the peaks
+ * and dips a plain average would flatten, so hundreds of attempts draw as fast as ten.
+ */
+public class SuccessRateChart extends JComponent {
+
+    private static final int WIDTH = 560;
+    private static final int HEIGHT = 380;
+    private static final Insets PLOT = new Insets(30, 56, 44, 20);
+    private static final Color LINE = new Color(0, 120, 200);
+    private static final Color GRID = new Color(215, 215, 215);
+
+    private final int mission;
+    private BufferedImage image;
+    private String message = "Loading graph...";
+    private SwingWorker<BufferedImage, Void> worker;
+
+    public SuccessRateChart(int mission) {
+        this.mission = mission;
+        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        setOpaque(true);
+        setBackground(Color.WHITE);
+    }
+
+    // Rendering starts once the component is shown, at the pixel density of its screen
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (worker != null) return;
+
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        double scale = gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+        worker = new SwingWorker<>() {
+            @Override
+            protected BufferedImage doInBackground() {
+                List<Boolean> outcomes = DatabaseManager.getAttemptOutcomes(mission);
+                if (outcomes == null || outcomes.isEmpty()) return null;
+                return render(cumulativeRates(outcomes), mission, scale);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    image = get();
+                    if (image == null) message = "No attempts recorded for this mission yet.";
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Graph could not be drawn: " + e.getMessage());
+                    message = "Graph could not be loaded.";
+                }
+                repaint();
+            }
+        };
+        worker.execute();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+
+        if (image != null) {
+            g2d.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+            return;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(Color.GRAY);
+        g2d.setFont(new Font("Arial", Font.PLAIN, 15));
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(message, (getWidth() - fm.stringWidth(message)) / 2, getHeight() / 2);
+    }
+
+    // Success rate in percent after each attempt
+    static double[] cumulativeRates(List<Boolean> outcomes) {
+        double[] rates = new double[outcomes.size()];
+        int successes = 0;
+        for (int i = 0; i < rates.length; i++) {
+            if (outcomes.get(i)) successes++;
+            rates[i] = successes * 100.0 / (i + 1);
+        }
+        return rates;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: indexes of at most threshold points of y (x being
+     * the index) that keep the shape of the line. The first and last points are always
+     * kept; from each bucket in between it keeps the point that forms the largest
+     * triangle with the point kept before it and the average of the next bucket.
+     */
+    static int[] lttb(double[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        double bucket = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        kept[0] = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            int start = (int) (i * bucket) + 1;
+            int end = (int) ((i + 1) * bucket) + 1;
+
+            // Average of the next bucket; the last point for the final bucket
+            int nextStart = end;
+            int nextEnd = Math.min(n, (int) ((i + 2) * bucket) + 1);
+            double avgX = 0, avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += j;
+                avgY += y[j];
+            }
+            int count = nextEnd - nextStart;
+            if (count > 0) {
+                avgX /= count;
+                avgY /= count;
+            } else {
+                avgX = n - 1;
+                avgY = y[n - 1];
+            }
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((a - avgX) * (y[j] - y[a]) - (a - j) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            kept[i + 1] = chosen;
+            a = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
+    }
+
+    private static BufferedImage render(double[] rates, int mission, double scale) {
+        BufferedImage image = new BufferedImage(
+                (int) Math.ceil(WIDTH * scale), (int) Math.ceil(HEIGHT * scale), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setTransform(AffineTransform.getScaleInstance(scale, scale));
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+
+        int left = PLOT.left, top = PLOT.top;
+        int plotW = WIDTH - PLOT.left - PLOT.right;
+        int plotH = HEIGHT - PLOT.top - PLOT.bottom;
+        int n = rates.length;
+
+        g2d.setFont(new Font("Arial", Font.BOLD, 15));
+        g2d.setColor(Color.BLACK);
+        g2d.drawString("Mission " + mission + " - cumulative success rate", left, top - 10);
+
+        // Percentage grid from 0% to 100% in 20% steps
+        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
+        FontMetrics fm = g2d.getFontMetrics();
+        for (int level = 0; level <= 100; level += 20) {
+            int y = top + plotH - (int) Math.round(level / 100.0 * plotH);
+            g2d.setColor(GRID);
+            g2d.drawLine(left, y, left + plotW, y);
+            g2d.setColor(Color.DARK_GRAY);
+            String label = level + "%";
+            g2d.drawString(label, left - 8 - fm.stringWidth(label), y + fm.getAscent() / 2 - 1);
+        }
+
+        // Attempt numbers along the bottom, about five ticks whatever the count
+        int step = Math.max(1, niceStep(n / 5.0));
+        for (int attempt = 1; attempt <= n; attempt = attempt == 1 && step > 1 ? step : attempt + step) {
+            int x = left + xOffset(attempt - 1, n, plotW);
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.drawLine(x, top + plotH, x, top + plotH + 4);
+            String label = Integer.toString(attempt);
+            g2d.drawString(label, x - fm.stringWidth(label) / 2, top + plotH + 6 + fm.getAscent());
+        }
+        g2d.drawString("Attempt", left + plotW / 2 - fm.stringWidth("Attempt") / 2, HEIGHT - 8);
+        g2d.drawLine(left, top, left, top + plotH);
+        g2d.drawLine(left, top + plotH, left + plotW, top + plotH);
+
+        // One point per device pixel of plot width is all the line can show
+        int[] points = lttb(rates, (int) Math.ceil(plotW * scale));
+        Path2D.Double line = new Path2D.Double();
+        for (int i = 0; i < points.length; i++) {
+            int index = points[i];
+            double x = left + xOffset(index, n, plotW);
+            double y = top + plotH - rates[index] / 100.0 * plotH;
+            if (i == 0) line.moveTo(x, y);
+            else line.lineTo(x, y);
+        }
+        g2d.setColor(LINE);
+        g2d.setStroke(new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        if (n == 1) {
+            double y = top + plotH - rates[0] / 100.0 * plotH;
+            g2d.fill(new Ellipse2D.Double(left + plotW / 2.0 - 3, y - 3, 6, 6));
+        } else {
+            g2d.draw(line);
+        }
+
+        g2d.dispose();
+        return image;
+    }
+
+    // A single attempt sits in the middle of the plot
+    private static int xOffset(int index, int count, int plotW) {
+        return count == 1 ? plotW / 2 : (int) Math.round((double) index / (count - 1) * plotW);
+    }
+
+    // 1, 2, 5, 10, 20, 50, ... at or above the raw step
+    private static int niceStep(double raw) {
+        int magnitude = 1;
+        while (true) {
+            for (int m : new int[]{1, 2, 5}) {
+                if (m * magnitude >= raw) return m * magnitude;
+            }
+            magnitude *= 10;
+        }
+    }
+}